@@ -0,0 +1,73 @@
+package com.ninickname.summarizer.tool;
+
+import com.ninickname.summarizer.config.FetchProperties;
+import com.ninickname.summarizer.model.ContentData;
+import com.ninickname.summarizer.tool.fetch.FetchTransportType;
+import com.ninickname.summarizer.tool.fetch.PageArchive;
+import org.openjdk.jmh.annotations.*;
+
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Fetch and extraction of every page in a recorded page archive, served by the
+ * replay transport - real-world HTML with no network.
+ *
+ * Capture an archive first by running the server with {@code fetch.archive.record=true}
+ * and a few research requests, then point {@code archive} at its directory.
+ * latencyScale 0 measures extraction alone, 1 replays the recorded latencies.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 2, time = 5)
+@Measurement(iterations = 3, time = 10)
+@Fork(1)
+public class ArchiveReplayBenchmark {
+
+    @Param({"page-archive"})
+    private String archive;
+
+    @Param({"0", "1"})
+    private double latencyScale;
+
+    private ContentFetcherTool tool;
+    private List<String> urls;
+
+    @Setup(Level.Trial)
+    public void setUp() throws Exception {
+        try (PageArchive pages = PageArchive.open(Path.of(archive))) {
+            urls = pages.targets();
+        }
+        if (urls.isEmpty()) {
+            throw new IllegalStateException("No recorded pages in " + archive
+                    + " - capture some with fetch.archive.record=true");
+        }
+
+        FetchProperties properties = new FetchProperties();
+        properties.getTransport().setType(FetchTransportType.REPLAY);
+        properties.getArchive().setDirectory(archive);
+        properties.getArchive().setLatencyScale(latencyScale);
+        properties.getExecutor().setMaxConcurrency(500);
+        // Every invocation replays the same URLs - nothing may be served from memory or skipped
+        properties.getCache().setEnabled(false);
+        properties.getCache().setNegativeTtl(Duration.ZERO);
+        properties.getQuarantine().setEnabled(false);
+        // No real hosts behind the replay - lift politeness limits
+        properties.getHost().setMaxConcurrency(500);
+        properties.getHost().setMinSpacing(Duration.ZERO);
+        tool = new ContentFetcherTool(properties);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        tool.shutdown();
+    }
+
+    @Benchmark
+    public List<ContentData> replayAll() {
+        return tool.fetchMultipleStructuredContents(urls);
+    }
+}
@@ -0,0 +1,71 @@
+package com.ninickname.summarizer.tool;
+
+import com.ninickname.summarizer.config.FetchProperties;
+import com.ninickname.summarizer.formatter.StructuredContentFormatter;
+import com.ninickname.summarizer.model.ContentData;
+import org.jsoup.Jsoup;
+import org.jsoup.nodes.Document;
+import org.jsoup.nodes.Element;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Throughput of the steps after extraction on the {@link PageFixtures} corpus:
+ * the markdown conversion of a page's main content, the junk stripping applied
+ * to that markdown and the formatting of the extracted result for the prompt.
+ * None of them mutate their input, so everything is prepared once per trial.
+ * Whole-page extraction is in {@link StructuredExtractionBenchmark}.
+ *
+ * Run with {@code -prof gc} for the allocation rate ({@code gc.alloc.rate.norm}
+ * is bytes per operation).
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class ExtractionBenchmark {
+
+    @Param({"WIKIPEDIA", "BLOG", "NESTED", "DIV_SOUP"})
+    private PageFixtures.Layout layout;
+
+    private ContentFetcherTool tool;
+    private Element mainContent;
+    private String markdown;
+    private ContentData content;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        FetchProperties properties = new FetchProperties();
+        properties.getCache().setEnabled(false);
+        tool = new ContentFetcherTool(properties);
+
+        String html = PageFixtures.html(layout);
+        Document doc = Jsoup.parse(html, layout.url());
+        mainContent = PageStructure.scan(doc).findMainContent();
+        markdown = tool.elementToMarkdown(mainContent);
+        content = tool.extractStructuredContent(Jsoup.parse(html, layout.url()), layout.url());
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        tool.shutdown();
+    }
+
+    @Benchmark
+    public String elementToMarkdown() {
+        return tool.elementToMarkdown(mainContent);
+    }
+
+    @Benchmark
+    public String stripJunkFromEnds() {
+        return tool.stripJunkFromEnds(markdown);
+    }
+
+    @Benchmark
+    public String toFormattedString() {
+        return StructuredContentFormatter.toFormattedString(content);
+    }
+}
@@ -0,0 +1,70 @@
+package com.ninickname.summarizer.tool;
+
+import org.jsoup.Jsoup;
+import org.jsoup.nodes.Document;
+import org.jsoup.nodes.Element;
+import org.jsoup.select.Elements;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Per-page cost of locating the main content and its headings: the single
+ * {@link PageStructure} traversal against the previous one-select-per-query
+ * approach ({@link SelectorPageStructure}), on the {@link PageFixtures} corpus.
+ *
+ * Each invocation gets a freshly parsed document (both variants mutate it);
+ * parsing is not part of the measurement.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class PageStructureBenchmark {
+
+    @Param({"WIKIPEDIA", "BLOG", "NESTED", "DIV_SOUP"})
+    private PageFixtures.Layout layout;
+
+    private String html;
+    private Document doc;
+
+    @Setup(Level.Trial)
+    public void loadFixture() {
+        html = PageFixtures.html(layout);
+    }
+
+    @Setup(Level.Invocation)
+    public void parse() {
+        doc = Jsoup.parse(html, layout.url());
+    }
+
+    @Benchmark
+    public int singlePass() {
+        PageStructure structure = PageStructure.scan(doc);
+        structure.removeMainHeading();
+        Element mainElement = structure.findMainContent();
+        List<Element> h2 = structure.h2Within(mainElement);
+        List<Element> h3 = structure.h3Within(mainElement);
+        if (h2.isEmpty() && h3.isEmpty() && doc.body() != null) {
+            h2 = structure.h2Within(doc.body());
+            h3 = structure.h3Within(doc.body());
+        }
+        return h2.size() + h3.size();
+    }
+
+    @Benchmark
+    public int selectorPasses() {
+        SelectorPageStructure.removeMainHeading(doc);
+        Element mainElement = SelectorPageStructure.findMainContent(doc);
+        Elements h2 = mainElement.select("h2");
+        Elements h3 = mainElement.select("h3");
+        if (h2.isEmpty() && h3.isEmpty() && doc.body() != null) {
+            h2 = doc.body().select("h2");
+            h3 = doc.body().select("h3");
+        }
+        return h2.size() + h3.size();
+    }
+}
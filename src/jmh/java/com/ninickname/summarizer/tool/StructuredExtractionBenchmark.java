@@ -0,0 +1,53 @@
+package com.ninickname.summarizer.tool;
+
+import com.ninickname.summarizer.config.FetchProperties;
+import com.ninickname.summarizer.model.ContentData;
+import org.jsoup.Jsoup;
+import org.jsoup.nodes.Document;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Structured extraction of a whole {@link PageFixtures} page. Extraction mutates
+ * its document, so each operation parses the page first; {@code parse} measures
+ * that parse alone and is the baseline to subtract from {@code parseAndExtract},
+ * for time and for {@code gc.alloc.rate.norm} under {@code -prof gc}.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class StructuredExtractionBenchmark {
+
+    @Param({"WIKIPEDIA", "BLOG", "NESTED", "DIV_SOUP"})
+    private PageFixtures.Layout layout;
+
+    private ContentFetcherTool tool;
+    private String html;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        FetchProperties properties = new FetchProperties();
+        properties.getCache().setEnabled(false);
+        tool = new ContentFetcherTool(properties);
+        html = PageFixtures.html(layout);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        tool.shutdown();
+    }
+
+    @Benchmark
+    public Document parse() {
+        return Jsoup.parse(html, layout.url());
+    }
+
+    @Benchmark
+    public ContentData parseAndExtract() {
+        return tool.extractStructuredContent(Jsoup.parse(html, layout.url()), layout.url());
+    }
+}
@@ -0,0 +1,73 @@
+package com.ninickname.summarizer.tool;
+
+import com.sun.net.httpserver.HttpServer;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+/**
+ * Local HTTP server for fetch benchmarks.
+ * Serves the same article under any path after a fixed delay that stands in for network latency.
+ */
+class StubPageServer implements AutoCloseable {
+    private static final String PARAGRAPH = "<p>" + "Benchmark content about fetch throughput. ".repeat(20) + "</p>\n";
+
+    private final HttpServer server;
+    private final ExecutorService handlerPool;
+
+    StubPageServer(long latencyMillis) throws IOException {
+        byte[] page = buildPage();
+        this.server = HttpServer.create(new InetSocketAddress(InetAddress.getLoopbackAddress(), 0), 1024);
+        this.handlerPool = Executors.newCachedThreadPool();
+        server.createContext("/", exchange -> {
+            try {
+                Thread.sleep(latencyMillis);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            exchange.getResponseHeaders().add("Content-Type", "text/html; charset=utf-8");
+            exchange.sendResponseHeaders(200, page.length);
+            try (OutputStream body = exchange.getResponseBody()) {
+                body.write(page);
+            }
+        });
+        server.setExecutor(handlerPool);
+        server.start();
+    }
+
+    /**
+     * Distinct URLs so no layer can serve repeats from memory
+     */
+    List<String> urls(int count) {
+        String base = "http://127.0.0.1:" + server.getAddress().getPort() + "/page/";
+        List<String> urls = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            urls.add(base + i);
+        }
+        return urls;
+    }
+
+    @Override
+    public void close() {
+        server.stop(0);
+        handlerPool.shutdownNow();
+    }
+
+    private static byte[] buildPage() {
+        StringBuilder html = new StringBuilder("<html><head><title>Stub page</title></head><body><article>");
+        html.append("<h1>Stub page</h1>");
+        for (int section = 0; section < 5; section++) {
+            html.append("<h2>Section ").append(section).append("</h2>");
+            html.append(PARAGRAPH).append(PARAGRAPH);
+        }
+        html.append("</article></body></html>");
+        return html.toString().getBytes(StandardCharsets.UTF_8);
+    }
+}
@@ -0,0 +1,46 @@
+package com.ninickname.summarizer.tool;
+
+import com.ninickname.summarizer.config.FetchProperties;
+import org.jsoup.Jsoup;
+import org.jsoup.nodes.Element;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Throughput of the table-to-markdown conversion on generated data tables
+ * ({@link PageFixtures#table}) of 10 and 200 rows. Run with {@code -prof gc} for
+ * the allocation rate.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class TableMarkdownBenchmark {
+
+    @Param({"10", "200"})
+    private int rows;
+
+    private ContentFetcherTool tool;
+    private Element table;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        FetchProperties properties = new FetchProperties();
+        properties.getCache().setEnabled(false);
+        tool = new ContentFetcherTool(properties);
+        table = Jsoup.parse(PageFixtures.table(rows)).selectFirst("table");
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        tool.shutdown();
+    }
+
+    @Benchmark
+    public String tableToMarkdown() {
+        return tool.tableToMarkdown(table);
+    }
+}
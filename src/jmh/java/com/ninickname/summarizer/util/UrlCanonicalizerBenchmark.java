@@ -0,0 +1,72 @@
+package com.ninickname.summarizer.util;
+
+import org.openjdk.jmh.annotations.*;
+
+import java.io.IOException;
+import java.net.URI;
+import java.util.List;
+import java.util.Locale;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Time per URL of {@link UrlCanonicalizer}, cycling through the URL corpus in
+ * {@code url-corpus.txt}, next to the java.net.URI-based cache key it replaced.
+ * The corpus equivalences are checked by {@link UrlCanonicalizerTest}.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class UrlCanonicalizerBenchmark {
+
+    private String[] urls;
+    private int next;
+
+    @Setup(Level.Trial)
+    public void setUp() throws IOException {
+        urls = UrlCanonicalizerTest.corpus().stream().flatMap(List::stream).toArray(String[]::new);
+    }
+
+    @Benchmark
+    public String canonicalize() {
+        return UrlCanonicalizer.canonicalize(nextUrl());
+    }
+
+    @Benchmark
+    public String uriCacheKey() {
+        return uriCacheKey(nextUrl());
+    }
+
+    private String nextUrl() {
+        String url = urls[next];
+        next = next + 1 == urls.length ? 0 : next + 1;
+        return url;
+    }
+
+    /**
+     * The content cache key before UrlCanonicalizer: scheme and host lowercased, fragment dropped
+     */
+    private static String uriCacheKey(String url) {
+        try {
+            URI uri = URI.create(url.trim());
+            if (uri.getScheme() == null || uri.getRawAuthority() == null) {
+                return url;
+            }
+            StringBuilder key = new StringBuilder()
+                    .append(uri.getScheme().toLowerCase(Locale.ROOT))
+                    .append("://")
+                    .append(uri.getRawAuthority().toLowerCase(Locale.ROOT));
+            if (uri.getRawPath() != null) {
+                key.append(uri.getRawPath());
+            }
+            if (uri.getRawQuery() != null) {
+                key.append('?').append(uri.getRawQuery());
+            }
+            return key.toString();
+        } catch (IllegalArgumentException e) {
+            return url;
+        }
+    }
+}
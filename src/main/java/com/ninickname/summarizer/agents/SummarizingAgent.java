@@ -2,6 +2,7 @@ package com.ninickname.summarizer.agents;
 
 import dev.langchain4j.model.chat.ChatModel;
 import dev.langchain4j.service.AiServices;
+import dev.langchain4j.service.Result;
 import dev.langchain4j.service.SystemMessage;
 import dev.langchain4j.service.UserMessage;
 import dev.langchain4j.service.V;
@@ -46,7 +47,7 @@ public interface SummarizingAgent {
             "Source URLs: {{sourceUrls}}\n\n" +
             "Remember: Use proper Markdown headings (##, ###) and blank lines for clean formatting! " +
             "IMPORTANT: End your summary with a '## Sources' section listing all the source URLs as a numbered list to give proper credit.")
-    String summarizeResearch(@V("topic") String topic, @V("sources") List<String> sources, @V("sourceUrls") List<String> sourceUrls);
+    Result<String> summarizeResearch(@V("topic") String topic, @V("sources") List<String> sources, @V("sourceUrls") List<String> sourceUrls);
 
     static SummarizingAgent create(ChatModel chatModel) {
         return AiServices.builder(SummarizingAgent.class)
@@ -0,0 +1,32 @@
+package com.ninickname.summarizer.cache;
+
+import com.ninickname.summarizer.model.ContentData;
+
+/**
+ * Cache entry: extracted content, the time it was fetched and the HTTP
+ * validators needed to revalidate it once stale.
+ *
+ * @param etag         ETag response header, null if the server sent none
+ * @param lastModified Last-Modified response header (verbatim), null if absent
+ */
+public record CachedContent(
+        ContentData content,
+        long fetchedAtMillis,
+        String etag,
+        String lastModified
+) {
+    public long ageMillis(long nowMillis) {
+        return nowMillis - fetchedAtMillis;
+    }
+
+    public boolean hasValidators() {
+        return etag != null || lastModified != null;
+    }
+
+    /**
+     * Same entry, marked as fetched now (after a 304 Not Modified)
+     */
+    public CachedContent refreshed(long nowMillis) {
+        return new CachedContent(content, nowMillis, etag, lastModified);
+    }
+}
@@ -0,0 +1,182 @@
+package com.ninickname.summarizer.cache;
+
+import com.ninickname.summarizer.model.ContentData;
+import com.ninickname.summarizer.util.UrlCanonicalizer;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Read-through cache of extracted {@link ContentData}, keyed by canonical URL
+ * ({@link UrlCanonicalizer}), so http/https, www and tracking-parameter variants share an entry.
+ *
+ * Two tiers:
+ * - Memory: bounded LRU of the hottest pages
+ * - Disk: gzip-compressed JSON files with a byte cap, survives restarts
+ *
+ * Disk hits are promoted to memory. Entries older than the TTL are stale: if the
+ * server sent an ETag or Last-Modified they are kept (up to the max-stale age) so the
+ * fetcher can revalidate them with a conditional request, otherwise they are dropped.
+ *
+ * Metrics: {@code fetch.cache.hits} (tagged tier), {@code fetch.cache.misses},
+ * {@code fetch.cache.revalidated}, {@code fetch.cache.evictions} (tagged tier)
+ * and {@code fetch.cache.size}.
+ */
+public class ContentCache {
+    private static final Logger logger = LoggerFactory.getLogger(ContentCache.class);
+
+    private final boolean enabled;
+    private final long ttlMillis;
+    private final long maxStaleMillis;
+    private final Map<String, CachedContent> memory; // guarded by this
+    private final DiskContentStore disk; // null if the disk tier is off
+
+    private final Counter memoryHits;
+    private final Counter diskHits;
+    private final Counter misses;
+    private final Counter revalidated;
+    private final Counter memoryEvictions;
+    private final Counter diskEvictions;
+
+    public ContentCache(boolean enabled, Duration ttl, Duration maxStale, int memoryEntries,
+                        Path diskDirectory, long diskMaxBytes, MeterRegistry meterRegistry) {
+        this.enabled = enabled;
+        this.ttlMillis = ttl.toMillis();
+        this.maxStaleMillis = maxStale.toMillis();
+
+        this.memoryHits = Counter.builder("fetch.cache.hits").tag("tier", "memory").register(meterRegistry);
+        this.diskHits = Counter.builder("fetch.cache.hits").tag("tier", "disk").register(meterRegistry);
+        this.misses = Counter.builder("fetch.cache.misses").register(meterRegistry);
+        this.revalidated = Counter.builder("fetch.cache.revalidated")
+                .description("Stale entries confirmed unchanged by a 304 Not Modified")
+                .register(meterRegistry);
+        this.memoryEvictions = Counter.builder("fetch.cache.evictions").tag("tier", "memory").register(meterRegistry);
+        this.diskEvictions = Counter.builder("fetch.cache.evictions").tag("tier", "disk").register(meterRegistry);
+
+        this.memory = new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, CachedContent> eldest) {
+                if (size() > memoryEntries) {
+                    memoryEvictions.increment();
+                    return true;
+                }
+                return false;
+            }
+        };
+        Gauge.builder("fetch.cache.size", this, ContentCache::memorySize)
+                .tag("tier", "memory")
+                .register(meterRegistry);
+
+        this.disk = enabled && diskDirectory != null ? openDisk(diskDirectory, diskMaxBytes) : null;
+    }
+
+    /**
+     * Cached entry for the URL: fresh, or stale but revalidatable (check {@link #isFresh}).
+     * Returns null on a miss.
+     */
+    public CachedContent lookup(String url) {
+        if (!enabled) {
+            return null;
+        }
+        String key = UrlCanonicalizer.canonicalize(url);
+        long now = System.currentTimeMillis();
+
+        CachedContent entry;
+        synchronized (this) {
+            entry = memory.get(key);
+            if (entry != null && !isUsable(entry, now)) {
+                memory.remove(key);
+                entry = null;
+            }
+        }
+        if (entry != null) {
+            countLookup(entry, now, memoryHits);
+            return entry;
+        }
+
+        if (disk != null) {
+            entry = disk.read(key);
+            if (entry != null && isUsable(entry, now)) {
+                synchronized (this) {
+                    memory.put(key, entry);
+                }
+                countLookup(entry, now, diskHits);
+                return entry;
+            }
+            if (entry != null) {
+                disk.remove(key);
+            }
+        }
+
+        misses.increment();
+        return null;
+    }
+
+    public boolean isFresh(CachedContent entry) {
+        return entry.ageMillis(System.currentTimeMillis()) <= ttlMillis;
+    }
+
+    public void put(String url, ContentData content, String etag, String lastModified) {
+        if (!enabled || content == null) {
+            return;
+        }
+        store(UrlCanonicalizer.canonicalize(url), new CachedContent(content, System.currentTimeMillis(), etag, lastModified));
+    }
+
+    /**
+     * The server confirmed a stale entry is unchanged - restart its TTL and return its content
+     */
+    public ContentData notModified(String url, CachedContent entry) {
+        revalidated.increment();
+        if (enabled) {
+            store(UrlCanonicalizer.canonicalize(url), entry.refreshed(System.currentTimeMillis()));
+        }
+        return entry.content();
+    }
+
+    private void store(String key, CachedContent entry) {
+        synchronized (this) {
+            memory.put(key, entry);
+        }
+        if (disk != null) {
+            disk.write(key, entry);
+        }
+    }
+
+    /**
+     * Fresh entries are served as-is, stale ones only if they can be revalidated
+     */
+    private boolean isUsable(CachedContent entry, long now) {
+        long age = entry.ageMillis(now);
+        return age <= ttlMillis || (entry.hasValidators() && age <= maxStaleMillis);
+    }
+
+    private void countLookup(CachedContent entry, long now, Counter tierHits) {
+        if (entry.ageMillis(now) <= ttlMillis) {
+            tierHits.increment();
+        } else {
+            misses.increment(); // Stale - the fetcher revalidates it
+        }
+    }
+
+    private synchronized int memorySize() {
+        return memory.size();
+    }
+
+    private DiskContentStore openDisk(Path directory, long maxBytes) {
+        try {
+            return new DiskContentStore(directory, maxBytes, diskEvictions::increment);
+        } catch (IOException e) {
+            logger.warn("Disk content cache disabled - cannot use {}: {}", directory, e.getMessage());
+            return null;
+        }
+    }
+}
@@ -0,0 +1,177 @@
+package com.ninickname.summarizer.cache;
+
+import com.fasterxml.jackson.databind.DeserializationFeature;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Comparator;
+import java.util.HexFormat;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.stream.Stream;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * On-disk tier of the content cache: one gzip-compressed JSON file per key.
+ *
+ * Files are named by the SHA-256 of the key and written atomically (temp file +
+ * move). When the directory grows past its byte cap, the least recently written
+ * files are deleted until it is back under 90% of the cap.
+ */
+class DiskContentStore {
+    private static final Logger logger = LoggerFactory.getLogger(DiskContentStore.class);
+    private static final String SUFFIX = ".json.gz";
+
+    private final Path directory;
+    private final long maxBytes;
+    private final ObjectMapper objectMapper;
+    private final AtomicLong totalBytes = new AtomicLong();
+    private final Runnable onEviction;
+
+    DiskContentStore(Path directory, long maxBytes, Runnable onEviction) throws IOException {
+        this.directory = directory;
+        this.maxBytes = maxBytes;
+        this.onEviction = onEviction;
+        this.objectMapper = new ObjectMapper();
+        objectMapper.configure(DeserializationFeature.FAIL_ON_UNKNOWN_PROPERTIES, false);
+
+        Files.createDirectories(directory);
+        try (Stream<Path> files = Files.list(directory)) {
+            totalBytes.set(files.filter(this::isEntry).mapToLong(DiskContentStore::sizeOf).sum());
+        }
+        logger.info("Disk content cache at {} ({} KB used, cap {} KB)", directory, totalBytes.get() / 1024, maxBytes / 1024);
+    }
+
+    CachedContent read(String key) {
+        Path file = fileFor(key);
+        if (!Files.exists(file)) {
+            return null;
+        }
+        try (InputStream in = new GZIPInputStream(Files.newInputStream(file))) {
+            return objectMapper.readValue(in, CachedContent.class);
+        } catch (IOException e) {
+            logger.debug("Dropping unreadable cache file {}: {}", file, e.getMessage());
+            delete(file);
+            return null;
+        }
+    }
+
+    void write(String key, CachedContent entry) {
+        Path file = fileFor(key);
+        Path temp = null;
+        try {
+            temp = Files.createTempFile(directory, "entry", ".tmp");
+            try (OutputStream out = new GZIPOutputStream(Files.newOutputStream(temp))) {
+                objectMapper.writeValue(out, entry);
+            }
+            if (moveIntoPlace(temp, file) > maxBytes) {
+                evictOldest();
+            }
+        } catch (IOException e) {
+            logger.warn("Failed to write cache file for {}: {}", key, e.getMessage());
+        } finally {
+            if (temp != null) {
+                deleteTemp(temp); // Still there only if the write or the move failed
+            }
+        }
+    }
+
+    /**
+     * Replace the entry and account for its size change, returning the new total.
+     * Locked so two writes of one key do not both subtract the same previous size.
+     */
+    private synchronized long moveIntoPlace(Path temp, Path file) throws IOException {
+        long previous = Files.exists(file) ? sizeOf(file) : 0;
+        Files.move(temp, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        return totalBytes.addAndGet(sizeOf(file) - previous);
+    }
+
+    void remove(String key) {
+        delete(fileFor(key));
+    }
+
+    private synchronized void evictOldest() {
+        long target = maxBytes * 9 / 10;
+        if (totalBytes.get() <= target) {
+            return;
+        }
+        List<Path> oldestFirst;
+        try (Stream<Path> files = Files.list(directory)) {
+            oldestFirst = files.filter(this::isEntry)
+                    .sorted(Comparator.comparingLong(DiskContentStore::lastModified))
+                    .toList();
+        } catch (IOException e) {
+            logger.warn("Failed to list cache directory {}: {}", directory, e.getMessage());
+            return;
+        }
+        for (Path file : oldestFirst) {
+            if (totalBytes.get() <= target) {
+                break;
+            }
+            if (delete(file)) {
+                onEviction.run();
+            }
+        }
+    }
+
+    private synchronized boolean delete(Path file) {
+        long size = sizeOf(file);
+        try {
+            if (Files.deleteIfExists(file)) {
+                totalBytes.addAndGet(-size);
+                return true;
+            }
+        } catch (IOException e) {
+            logger.debug("Failed to delete cache file {}: {}", file, e.getMessage());
+        }
+        return false;
+    }
+
+    private static void deleteTemp(Path temp) {
+        try {
+            Files.deleteIfExists(temp);
+        } catch (IOException e) {
+            logger.debug("Failed to delete temp file {}: {}", temp, e.getMessage());
+        }
+    }
+
+    private Path fileFor(String key) {
+        try {
+            byte[] digest = MessageDigest.getInstance("SHA-256").digest(key.getBytes(StandardCharsets.UTF_8));
+            return directory.resolve(HexFormat.of().formatHex(digest) + SUFFIX);
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 not available", e);
+        }
+    }
+
+    private boolean isEntry(Path file) {
+        return file.getFileName().toString().endsWith(SUFFIX);
+    }
+
+    private static long sizeOf(Path file) {
+        try {
+            return Files.size(file);
+        } catch (IOException e) {
+            return 0;
+        }
+    }
+
+    private static long lastModified(Path file) {
+        try {
+            return Files.getLastModifiedTime(file).toMillis();
+        } catch (IOException e) {
+            return 0;
+        }
+    }
+}
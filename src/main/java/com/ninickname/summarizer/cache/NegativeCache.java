@@ -0,0 +1,69 @@
+package com.ninickname.summarizer.cache;
+
+import com.ninickname.summarizer.util.UrlCanonicalizer;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+
+import java.time.Duration;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * URLs whose last fetch failed (HTTP error, timeout, refused body, too little text),
+ * remembered for a TTL so the next research request that surfaces them does not
+ * spend a fetch slot on them again.
+ *
+ * Memory only, bounded LRU keyed like {@link ContentCache}. A zero TTL disables it.
+ * Metric: {@code fetch.cache.negative.size}.
+ */
+public class NegativeCache {
+    private final long ttlMillis;
+    private final Map<String, Long> expiresAt; // guarded by this
+
+    public NegativeCache(Duration ttl, int maxEntries, MeterRegistry meterRegistry) {
+        this.ttlMillis = ttl.toMillis();
+        this.expiresAt = new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, Long> eldest) {
+                return size() > maxEntries;
+            }
+        };
+        Gauge.builder("fetch.cache.negative.size", this, NegativeCache::size)
+                .description("URLs skipped because their last fetch failed")
+                .register(meterRegistry);
+    }
+
+    /**
+     * True if the URL failed within the TTL
+     */
+    public boolean contains(String url) {
+        if (ttlMillis <= 0) {
+            return false;
+        }
+        String key = UrlCanonicalizer.canonicalize(url);
+        synchronized (this) {
+            Long expiry = expiresAt.get(key);
+            if (expiry == null) {
+                return false;
+            }
+            if (expiry <= System.currentTimeMillis()) {
+                expiresAt.remove(key);
+                return false;
+            }
+            return true;
+        }
+    }
+
+    public void put(String url) {
+        if (ttlMillis <= 0) {
+            return;
+        }
+        synchronized (this) {
+            expiresAt.put(UrlCanonicalizer.canonicalize(url), System.currentTimeMillis() + ttlMillis);
+        }
+    }
+
+    private synchronized int size() {
+        return expiresAt.size();
+    }
+}
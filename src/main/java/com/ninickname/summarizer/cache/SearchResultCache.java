@@ -0,0 +1,150 @@
+package com.ninickname.summarizer.cache;
+
+import com.ninickname.summarizer.model.SearxngResponse;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+
+import java.text.Normalizer;
+import java.time.Duration;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+
+/**
+ * Search result pages, keyed by normalized query and page number, so repeated and
+ * near-identical queries do not hit the search backend (a rate-limited SearXNG) again.
+ *
+ * Memory only, bounded LRU with a TTL. Concurrent lookups of the same missing page
+ * are single-flighted: one caller loads it and the others wait for its result. If
+ * the loading caller is interrupted (a cancelled speculative page), a waiting caller
+ * takes over the load. Pages without results are not cached - SearXNG also answers
+ * that way when its engines are rate-limited. A zero TTL disables the cache.
+ *
+ * Metrics: {@code search.cache.hits}, {@code search.cache.misses},
+ * {@code search.cache.coalesced} and {@code search.cache.size}.
+ */
+public class SearchResultCache {
+    private final long ttlMillis;
+    private final Map<String, Entry> entries; // guarded by this
+    private final Map<String, CompletableFuture<SearxngResponse>> loading = new HashMap<>(); // guarded by this
+
+    private final Counter hits;
+    private final Counter misses;
+    private final Counter coalesced;
+
+    private record Entry(SearxngResponse response, long expiresAt) {}
+
+    public SearchResultCache(Duration ttl, int maxEntries, MeterRegistry meterRegistry) {
+        this.ttlMillis = ttl.toMillis();
+        this.entries = new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, Entry> eldest) {
+                return size() > maxEntries;
+            }
+        };
+
+        this.hits = Counter.builder("search.cache.hits").register(meterRegistry);
+        this.misses = Counter.builder("search.cache.misses").register(meterRegistry);
+        this.coalesced = Counter.builder("search.cache.coalesced")
+                .description("Lookups that waited for a concurrent load of the same page")
+                .register(meterRegistry);
+        Gauge.builder("search.cache.size", this, SearchResultCache::size)
+                .register(meterRegistry);
+    }
+
+    /**
+     * Cached page for the query, or the page loaded by {@code loader} (or by a concurrent
+     * caller with the same query and page)
+     */
+    public SearxngResponse get(String query, int page, Callable<SearxngResponse> loader) throws Exception {
+        if (ttlMillis <= 0) {
+            return loader.call();
+        }
+        String key = keyOf(query, page);
+
+        while (true) {
+            CompletableFuture<SearxngResponse> load;
+            boolean loadHere = false;
+            synchronized (this) {
+                Entry entry = entries.get(key);
+                if (entry != null && entry.expiresAt() > System.currentTimeMillis()) {
+                    hits.increment();
+                    return entry.response();
+                }
+                if (entry != null) {
+                    entries.remove(key);
+                }
+                load = loading.get(key);
+                if (load == null) {
+                    load = new CompletableFuture<>();
+                    loading.put(key, load);
+                    loadHere = true;
+                }
+            }
+
+            if (loadHere) {
+                misses.increment();
+                return load(key, load, loader);
+            }
+
+            coalesced.increment();
+            try {
+                return load.get();
+            } catch (CancellationException e) {
+                // The loading caller was interrupted - look again, possibly loading it here
+            } catch (ExecutionException e) {
+                throw e.getCause() instanceof Exception cause ? cause : e;
+            }
+        }
+    }
+
+    private SearxngResponse load(String key, CompletableFuture<SearxngResponse> load,
+                                 Callable<SearxngResponse> loader) throws Exception {
+        SearxngResponse response;
+        try {
+            response = loader.call();
+        } catch (Exception | Error e) {
+            synchronized (this) {
+                loading.remove(key);
+            }
+            if (Thread.currentThread().isInterrupted() || e instanceof InterruptedException) {
+                load.cancel(false);
+            } else {
+                load.completeExceptionally(e);
+            }
+            throw e;
+        }
+
+        synchronized (this) {
+            if (response.results() != null && !response.results().isEmpty()) {
+                entries.put(key, new Entry(response, System.currentTimeMillis() + ttlMillis));
+            }
+            loading.remove(key);
+        }
+        load.complete(response);
+        return response;
+    }
+
+    /**
+     * Cache key: query NFKC-normalized, lowercased, whitespace collapsed and trailing
+     * punctuation dropped, plus the page number. Word order is kept - it changes results.
+     */
+    static String keyOf(String query, int page) {
+        String normalized = Normalizer.normalize(query, Normalizer.Form.NFKC)
+                .toLowerCase(Locale.ROOT)
+                .replaceAll("\\s+", " ")
+                .strip()
+                .replaceAll("[\\s.?!,;:]+$", "");
+        return page + "|" + normalized;
+    }
+
+    private synchronized int size() {
+        return entries.size();
+    }
+}
@@ -0,0 +1,595 @@
+package com.ninickname.summarizer.config;
+
+import com.ninickname.summarizer.tool.fetch.FetchExecutionMode;
+import com.ninickname.summarizer.tool.fetch.FetchTransportType;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+import org.springframework.util.unit.DataSize;
+
+import java.time.Duration;
+
+/**
+ * Tuning knobs for content fetching, bound from {@code fetch.*} properties.
+ * Defaults apply when the tool is constructed outside Spring.
+ */
+@Component
+@ConfigurationProperties(prefix = "fetch")
+public class FetchProperties {
+
+    /**
+     * Maximum number of body bytes read per page; the stream is cancelled after that.
+     * Main content of long articles still fits, 20 MB junk pages do not.
+     */
+    private int maxBodyBytes = 2 * 1024 * 1024;
+
+    /**
+     * Also ask servers for only the first {@code maxBodyBytes} via a Range header
+     */
+    private boolean rangeRequests = true;
+
+    /**
+     * Responses announcing a larger Content-Length are refused before download
+     * (dumps and binaries - HTML pages are only read up to {@code maxBodyBytes} anyway)
+     */
+    private DataSize maxContentLength = DataSize.ofMegabytes(20);
+
+    private final Executor executor = new Executor();
+
+    private final Transport transport = new Transport();
+
+    private final Host host = new Host();
+
+    private final Cache cache = new Cache();
+
+    private final Timeout timeout = new Timeout();
+
+    private final Quarantine quarantine = new Quarantine();
+
+    private final Dedup dedup = new Dedup();
+
+    private final Archive archive = new Archive();
+
+    public int getMaxBodyBytes() {
+        return maxBodyBytes;
+    }
+
+    public void setMaxBodyBytes(int maxBodyBytes) {
+        this.maxBodyBytes = maxBodyBytes;
+    }
+
+    public boolean isRangeRequests() {
+        return rangeRequests;
+    }
+
+    public void setRangeRequests(boolean rangeRequests) {
+        this.rangeRequests = rangeRequests;
+    }
+
+    public DataSize getMaxContentLength() {
+        return maxContentLength;
+    }
+
+    public void setMaxContentLength(DataSize maxContentLength) {
+        this.maxContentLength = maxContentLength;
+    }
+
+    public Executor getExecutor() {
+        return executor;
+    }
+
+    public Transport getTransport() {
+        return transport;
+    }
+
+    public Host getHost() {
+        return host;
+    }
+
+    public Cache getCache() {
+        return cache;
+    }
+
+    public Timeout getTimeout() {
+        return timeout;
+    }
+
+    public Quarantine getQuarantine() {
+        return quarantine;
+    }
+
+    public Dedup getDedup() {
+        return dedup;
+    }
+
+    public Archive getArchive() {
+        return archive;
+    }
+
+    /**
+     * {@code fetch.executor.*} - threads that run the blocking page fetches
+     */
+    public static class Executor {
+        private FetchExecutionMode mode = FetchExecutionMode.FIXED;
+
+        /**
+         * Pool size in FIXED mode
+         */
+        private int poolSize = 10;
+
+        /**
+         * Maximum concurrent fetches in VIRTUAL mode, shared by all research requests
+         */
+        private int maxConcurrency = 64;
+
+        public FetchExecutionMode getMode() {
+            return mode;
+        }
+
+        public void setMode(FetchExecutionMode mode) {
+            this.mode = mode;
+        }
+
+        public int getPoolSize() {
+            return poolSize;
+        }
+
+        public void setPoolSize(int poolSize) {
+            this.poolSize = poolSize;
+        }
+
+        public int getMaxConcurrency() {
+            return maxConcurrency;
+        }
+
+        public void setMaxConcurrency(int maxConcurrency) {
+            this.maxConcurrency = maxConcurrency;
+        }
+    }
+
+    /**
+     * {@code fetch.transport.*} - HTTP engine and connection handling
+     */
+    public static class Transport {
+        private FetchTransportType type = FetchTransportType.APACHE;
+
+        /**
+         * Connection pool limits (APACHE)
+         */
+        private int maxConnections = 100;
+        private int maxConnectionsPerRoute = 4;
+
+        /**
+         * Negotiate HTTP/2 via ALPN on TLS connections where the server offers it (APACHE)
+         */
+        private boolean http2 = true;
+
+        /**
+         * How long resolved host addresses are reused (APACHE)
+         */
+        private Duration dnsTtl = Duration.ofMinutes(5);
+
+        /**
+         * How long the final URL of a redirected or rewritten URL is remembered; zero disables
+         */
+        private Duration redirectTtl = Duration.ofHours(1);
+
+        private int redirectEntries = 10000;
+
+        public FetchTransportType getType() {
+            return type;
+        }
+
+        public void setType(FetchTransportType type) {
+            this.type = type;
+        }
+
+        public int getMaxConnections() {
+            return maxConnections;
+        }
+
+        public void setMaxConnections(int maxConnections) {
+            this.maxConnections = maxConnections;
+        }
+
+        public int getMaxConnectionsPerRoute() {
+            return maxConnectionsPerRoute;
+        }
+
+        public void setMaxConnectionsPerRoute(int maxConnectionsPerRoute) {
+            this.maxConnectionsPerRoute = maxConnectionsPerRoute;
+        }
+
+        public boolean isHttp2() {
+            return http2;
+        }
+
+        public void setHttp2(boolean http2) {
+            this.http2 = http2;
+        }
+
+        public Duration getDnsTtl() {
+            return dnsTtl;
+        }
+
+        public void setDnsTtl(Duration dnsTtl) {
+            this.dnsTtl = dnsTtl;
+        }
+
+        public Duration getRedirectTtl() {
+            return redirectTtl;
+        }
+
+        public void setRedirectTtl(Duration redirectTtl) {
+            this.redirectTtl = redirectTtl;
+        }
+
+        public int getRedirectEntries() {
+            return redirectEntries;
+        }
+
+        public void setRedirectEntries(int redirectEntries) {
+            this.redirectEntries = redirectEntries;
+        }
+    }
+
+    /**
+     * {@code fetch.host.*} - per-host politeness limits
+     */
+    public static class Host {
+        /**
+         * Maximum concurrent requests to one host
+         */
+        private int maxConcurrency = 2;
+
+        /**
+         * Minimum time between two request starts on the same host
+         */
+        private Duration minSpacing = Duration.ofMillis(100);
+
+        public int getMaxConcurrency() {
+            return maxConcurrency;
+        }
+
+        public void setMaxConcurrency(int maxConcurrency) {
+            this.maxConcurrency = maxConcurrency;
+        }
+
+        public Duration getMinSpacing() {
+            return minSpacing;
+        }
+
+        public void setMinSpacing(Duration minSpacing) {
+            this.minSpacing = minSpacing;
+        }
+    }
+
+    /**
+     * {@code fetch.cache.*} - cache of extracted page content (memory LRU + compressed disk tier)
+     */
+    public static class Cache {
+        private boolean enabled = true;
+
+        /**
+         * Entries older than this are refetched
+         */
+        private Duration ttl = Duration.ofHours(6);
+
+        /**
+         * Stale entries with an ETag or Last-Modified are kept this long for conditional revalidation
+         */
+        private Duration maxStale = Duration.ofDays(7);
+
+        /**
+         * Maximum pages held in memory
+         */
+        private int memoryEntries = 1000;
+
+        /**
+         * Disk tier directory; empty disables the disk tier
+         */
+        private String diskDirectory = System.getProperty("java.io.tmpdir") + "/research-agent-cache";
+
+        private DataSize diskMaxSize = DataSize.ofMegabytes(512);
+
+        /**
+         * Failed URLs are skipped for this long; zero disables the negative cache
+         */
+        private Duration negativeTtl = Duration.ofMinutes(30);
+
+        private int negativeEntries = 10000;
+
+        public boolean isEnabled() {
+            return enabled;
+        }
+
+        public void setEnabled(boolean enabled) {
+            this.enabled = enabled;
+        }
+
+        public Duration getTtl() {
+            return ttl;
+        }
+
+        public void setTtl(Duration ttl) {
+            this.ttl = ttl;
+        }
+
+        public Duration getMaxStale() {
+            return maxStale;
+        }
+
+        public void setMaxStale(Duration maxStale) {
+            this.maxStale = maxStale;
+        }
+
+        public int getMemoryEntries() {
+            return memoryEntries;
+        }
+
+        public void setMemoryEntries(int memoryEntries) {
+            this.memoryEntries = memoryEntries;
+        }
+
+        public String getDiskDirectory() {
+            return diskDirectory;
+        }
+
+        public void setDiskDirectory(String diskDirectory) {
+            this.diskDirectory = diskDirectory;
+        }
+
+        public DataSize getDiskMaxSize() {
+            return diskMaxSize;
+        }
+
+        public void setDiskMaxSize(DataSize diskMaxSize) {
+            this.diskMaxSize = diskMaxSize;
+        }
+
+        public Duration getNegativeTtl() {
+            return negativeTtl;
+        }
+
+        public void setNegativeTtl(Duration negativeTtl) {
+            this.negativeTtl = negativeTtl;
+        }
+
+        public int getNegativeEntries() {
+            return negativeEntries;
+        }
+
+        public void setNegativeEntries(int negativeEntries) {
+            this.negativeEntries = negativeEntries;
+        }
+    }
+
+    /**
+     * {@code fetch.timeout.*} - per-request timeouts derived from each host's recent latencies
+     */
+    public static class Timeout {
+        /**
+         * Total time one page fetch may take, host wait included; caps every timeout
+         */
+        private Duration budget = Duration.ofSeconds(30);
+
+        /**
+         * Bounds of the derived timeout
+         */
+        private Duration min = Duration.ofSeconds(2);
+        private Duration max = Duration.ofSeconds(30);
+
+        /**
+         * Latency percentile of the host's history the timeout is based on
+         */
+        private double percentile = 0.95;
+
+        /**
+         * Safety factor applied to that percentile
+         */
+        private double multiplier = 3.0;
+
+        /**
+         * Recent requests remembered per host (and globally)
+         */
+        private int window = 64;
+
+        /**
+         * Samples needed before a host's own history is trusted over the global one
+         */
+        private int minSamples = 5;
+
+        public Duration getBudget() {
+            return budget;
+        }
+
+        public void setBudget(Duration budget) {
+            this.budget = budget;
+        }
+
+        public Duration getMin() {
+            return min;
+        }
+
+        public void setMin(Duration min) {
+            this.min = min;
+        }
+
+        public Duration getMax() {
+            return max;
+        }
+
+        public void setMax(Duration max) {
+            this.max = max;
+        }
+
+        public double getPercentile() {
+            return percentile;
+        }
+
+        public void setPercentile(double percentile) {
+            this.percentile = percentile;
+        }
+
+        public double getMultiplier() {
+            return multiplier;
+        }
+
+        public void setMultiplier(double multiplier) {
+            this.multiplier = multiplier;
+        }
+
+        public int getWindow() {
+            return window;
+        }
+
+        public void setWindow(int window) {
+            this.window = window;
+        }
+
+        public int getMinSamples() {
+            return minSamples;
+        }
+
+        public void setMinSamples(int minSamples) {
+            this.minSamples = minSamples;
+        }
+    }
+
+    /**
+     * {@code fetch.quarantine.*} - hosts skipped after too many recent failures
+     */
+    public static class Quarantine {
+        private boolean enabled = true;
+
+        /**
+         * Recent fetch outcomes remembered per host
+         */
+        private int window = 20;
+
+        /**
+         * Outcomes needed before a host can be quarantined
+         */
+        private int minSamples = 5;
+
+        /**
+         * Hosts below this share of successful fetches are quarantined
+         */
+        private double minSuccessRate = 0.3;
+
+        /**
+         * How often a quarantined host gets one probe request
+         */
+        private Duration probeInterval = Duration.ofMinutes(5);
+
+        public boolean isEnabled() {
+            return enabled;
+        }
+
+        public void setEnabled(boolean enabled) {
+            this.enabled = enabled;
+        }
+
+        public int getWindow() {
+            return window;
+        }
+
+        public void setWindow(int window) {
+            this.window = window;
+        }
+
+        public int getMinSamples() {
+            return minSamples;
+        }
+
+        public void setMinSamples(int minSamples) {
+            this.minSamples = minSamples;
+        }
+
+        public double getMinSuccessRate() {
+            return minSuccessRate;
+        }
+
+        public void setMinSuccessRate(double minSuccessRate) {
+            this.minSuccessRate = minSuccessRate;
+        }
+
+        public Duration getProbeInterval() {
+            return probeInterval;
+        }
+
+        public void setProbeInterval(Duration probeInterval) {
+            this.probeInterval = probeInterval;
+        }
+    }
+
+    /**
+     * {@code fetch.dedup.*} - near-duplicate pages dropped from a quorum fetch
+     */
+    public static class Dedup {
+        private boolean enabled = true;
+
+        /**
+         * Pages whose 64-bit SimHash fingerprints differ in at most this many bits are duplicates
+         * (8 is roughly a shingle cosine similarity of 0.92; unrelated pages differ in ~32)
+         */
+        private int maxDistance = 8;
+
+        public boolean isEnabled() {
+            return enabled;
+        }
+
+        public void setEnabled(boolean enabled) {
+            this.enabled = enabled;
+        }
+
+        public int getMaxDistance() {
+            return maxDistance;
+        }
+
+        public void setMaxDistance(int maxDistance) {
+            this.maxDistance = maxDistance;
+        }
+    }
+
+    /**
+     * {@code fetch.archive.*} - recorded responses for offline replay
+     * (capture with {@code record=true}, replay with {@code fetch.transport.type=replay})
+     */
+    public static class Archive {
+        /**
+         * Append every fetched response to the archive
+         */
+        private boolean record = false;
+
+        private String directory = "page-archive";
+
+        /**
+         * Replayed responses are delayed by their recorded latency times this factor; 0 serves immediately
+         */
+        private double latencyScale = 1.0;
+
+        public boolean isRecord() {
+            return record;
+        }
+
+        public void setRecord(boolean record) {
+            this.record = record;
+        }
+
+        public String getDirectory() {
+            return directory;
+        }
+
+        public void setDirectory(String directory) {
+            this.directory = directory;
+        }
+
+        public double getLatencyScale() {
+            return latencyScale;
+        }
+
+        public void setLatencyScale(double latencyScale) {
+            this.latencyScale = latencyScale;
+        }
+    }
+}
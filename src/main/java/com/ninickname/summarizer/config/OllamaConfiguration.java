@@ -15,10 +15,13 @@ public class OllamaConfiguration {
     @Bean
     public ChatModel chatLanguageModel(
             @Value("${ollama.url:http://localhost:11434}") String ollamaUrl,
-            @Value("${ollama.model:llama3.1:latest}") String ollamaModel) {
+            @Value("${ollama.model:llama3.1:latest}") String ollamaModel,
+            SummaryProperties summaryProperties) {
         return OllamaChatModel.builder()
                 .baseUrl(ollamaUrl)
                 .modelName(ollamaModel)
+                // Ollama's default window is far smaller and truncates silently - match the prompt budget
+                .numCtx(summaryProperties.getContextTokens())
                 .build();
     }
 
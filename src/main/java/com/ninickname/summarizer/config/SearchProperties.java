@@ -0,0 +1,182 @@
+package com.ninickname.summarizer.config;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+
+/**
+ * Tuning knobs for web search, bound from {@code search.*} properties.
+ * Defaults apply when the tool is constructed outside Spring.
+ */
+@Component
+@ConfigurationProperties(prefix = "search")
+public class SearchProperties {
+
+    private final Mcp mcp = new Mcp();
+    private final Pagination pagination = new Pagination();
+    private final Cache cache = new Cache();
+    private final Pipeline pipeline = new Pipeline();
+
+    public Mcp getMcp() {
+        return mcp;
+    }
+
+    public Pagination getPagination() {
+        return pagination;
+    }
+
+    public Cache getCache() {
+        return cache;
+    }
+
+    public Pipeline getPipeline() {
+        return pipeline;
+    }
+
+    /**
+     * {@code search.mcp.*} - pooled sessions with the MCP search server
+     */
+    public static class Mcp {
+        /**
+         * Sessions kept open and shared by concurrent searches
+         */
+        private int poolSize = 4;
+
+        /**
+         * How long a search waits for a free session before failing
+         */
+        private Duration acquireTimeout = Duration.ofSeconds(10);
+
+        private Duration requestTimeout = Duration.ofSeconds(10);
+
+        /**
+         * Idle sessions are pinged this often; ones that fail are closed and replaced on demand
+         */
+        private Duration keepAliveInterval = Duration.ofSeconds(30);
+
+        public int getPoolSize() {
+            return poolSize;
+        }
+
+        public void setPoolSize(int poolSize) {
+            this.poolSize = poolSize;
+        }
+
+        public Duration getAcquireTimeout() {
+            return acquireTimeout;
+        }
+
+        public void setAcquireTimeout(Duration acquireTimeout) {
+            this.acquireTimeout = acquireTimeout;
+        }
+
+        public Duration getRequestTimeout() {
+            return requestTimeout;
+        }
+
+        public void setRequestTimeout(Duration requestTimeout) {
+            this.requestTimeout = requestTimeout;
+        }
+
+        public Duration getKeepAliveInterval() {
+            return keepAliveInterval;
+        }
+
+        public void setKeepAliveInterval(Duration keepAliveInterval) {
+            this.keepAliveInterval = keepAliveInterval;
+        }
+    }
+
+    /**
+     * {@code search.pagination.*} - how result pages are requested
+     */
+    public static class Pagination {
+        /**
+         * Request the pages the first page's yield says are still needed concurrently,
+         * rather than one at a time
+         */
+        private boolean speculative = true;
+
+        /**
+         * Most pages of one search requested at once; each holds a pooled session
+         */
+        private int maxInFlight = 4;
+
+        public boolean isSpeculative() {
+            return speculative;
+        }
+
+        public void setSpeculative(boolean speculative) {
+            this.speculative = speculative;
+        }
+
+        public int getMaxInFlight() {
+            return maxInFlight;
+        }
+
+        public void setMaxInFlight(int maxInFlight) {
+            this.maxInFlight = maxInFlight;
+        }
+    }
+
+    /**
+     * {@code search.cache.*} - result pages by normalized query and page number
+     */
+    public static class Cache {
+        /**
+         * Cached pages are searched again after this long; zero disables the cache
+         */
+        private Duration ttl = Duration.ofHours(1);
+
+        private int maxEntries = 2000;
+
+        public Duration getTtl() {
+            return ttl;
+        }
+
+        public void setTtl(Duration ttl) {
+            this.ttl = ttl;
+        }
+
+        public int getMaxEntries() {
+            return maxEntries;
+        }
+
+        public void setMaxEntries(int maxEntries) {
+            this.maxEntries = maxEntries;
+        }
+    }
+
+    /**
+     * {@code search.pipeline.*} - fetching pages while the search is still running
+     */
+    public static class Pipeline {
+        /**
+         * Hand search results to the fetch step as each page is read, instead of
+         * fetching after the whole search
+         */
+        private boolean enabled = true;
+
+        /**
+         * Results waiting to be fetched before the search blocks
+         */
+        private int bufferSize = 50;
+
+        public boolean isEnabled() {
+            return enabled;
+        }
+
+        public void setEnabled(boolean enabled) {
+            this.enabled = enabled;
+        }
+
+        public int getBufferSize() {
+            return bufferSize;
+        }
+
+        public void setBufferSize(int bufferSize) {
+            this.bufferSize = bufferSize;
+        }
+    }
+}
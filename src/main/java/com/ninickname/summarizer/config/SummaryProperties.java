@@ -0,0 +1,66 @@
+package com.ninickname.summarizer.config;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+/**
+ * Prompt budget of the comprehensive summary, bound from {@code summary.*} properties.
+ */
+@Component
+@ConfigurationProperties(prefix = "summary")
+public class SummaryProperties {
+
+    /**
+     * Model context window in tokens; also sent to Ollama as num_ctx so the
+     * budget and the window the model actually uses agree
+     */
+    private int contextTokens = 16384;
+
+    /**
+     * Tokens kept free for the generated summary
+     */
+    private int outputTokens = 2048;
+
+    /**
+     * Tokens taken by the system message and the prompt template
+     */
+    private int instructionTokens = 700;
+
+    /**
+     * Characters per token used to estimate prompt size (llama3 averages ~4 on
+     * English prose, less on markdown and URLs)
+     */
+    private double charsPerToken = 3.5;
+
+    public int getContextTokens() {
+        return contextTokens;
+    }
+
+    public void setContextTokens(int contextTokens) {
+        this.contextTokens = contextTokens;
+    }
+
+    public int getOutputTokens() {
+        return outputTokens;
+    }
+
+    public void setOutputTokens(int outputTokens) {
+        this.outputTokens = outputTokens;
+    }
+
+    public int getInstructionTokens() {
+        return instructionTokens;
+    }
+
+    public void setInstructionTokens(int instructionTokens) {
+        this.instructionTokens = instructionTokens;
+    }
+
+    public double getCharsPerToken() {
+        return charsPerToken;
+    }
+
+    public void setCharsPerToken(double charsPerToken) {
+        this.charsPerToken = charsPerToken;
+    }
+}
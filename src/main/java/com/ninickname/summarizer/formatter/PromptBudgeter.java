@@ -0,0 +1,249 @@
+package com.ninickname.summarizer.formatter;
+
+import com.ninickname.summarizer.config.SummaryProperties;
+import com.ninickname.summarizer.model.ContentData;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Fits the sources of the comprehensive summary into the model's context window.
+ *
+ * What is left of the window after the summary output, the instructions, the
+ * topic and the source URL list is shared between sources by weight - search
+ * score (relative to the best source) times rank decay. Sources smaller than
+ * their share keep everything and hand the rest to the others. Each source is
+ * then cut to its allocation by dropping whole sections or subsections, in
+ * document order, so headings never lose their text and the prompt always fits.
+ * Sources that cannot keep a single section are left out, URL included.
+ *
+ * Sizes are measured in characters of the {@link StructuredContentFormatter}
+ * output and converted to tokens with a chars-per-token estimate.
+ */
+@Component
+public class PromptBudgeter {
+
+    /**
+     * Sources with a lower relative score still get this share of the best one's weight
+     */
+    private static final double MIN_SCORE_WEIGHT = 0.25;
+
+    private final int contextTokens;
+    private final int outputTokens;
+    private final int instructionTokens;
+    private final double charsPerToken;
+
+    public PromptBudgeter() {
+        this(new SummaryProperties());
+    }
+
+    @Autowired
+    public PromptBudgeter(SummaryProperties properties) {
+        this.contextTokens = properties.getContextTokens();
+        this.outputTokens = properties.getOutputTokens();
+        this.instructionTokens = properties.getInstructionTokens();
+        this.charsPerToken = properties.getCharsPerToken();
+    }
+
+    /**
+     * Sources trimmed to the budget, formatted for the summarizing agent
+     */
+    public record Prompt(
+            List<ContentData> contents,
+            List<String> formattedContents,
+            List<String> sourceUrls,
+            int estimatedTokens,
+            int budgetTokens,
+            int droppedSections,
+            int droppedSources
+    ) {}
+
+    public Prompt assemble(String topic, List<ContentData> contents) {
+        int budgetTokens = contextTokens - outputTokens;
+        List<String> allUrls = contents.stream().map(ContentData::url).toList();
+        long fixedChars = (long) Math.ceil(instructionTokens * charsPerToken)
+                + (topic != null ? topic.length() : 0)
+                + allUrls.toString().length();
+        long available = Math.max(0, (long) (budgetTokens * charsPerToken) - fixedChars);
+
+        long[] allocations = allocate(contents, available);
+        Trimmed[] trimmed = new Trimmed[contents.size()];
+        long leftover = available;
+        for (int i = 0; i < contents.size(); i++) {
+            trimmed[i] = trim(contents.get(i), allocations[i]);
+            leftover -= trimmed[i].size();
+        }
+        // What whole sections left unused goes to the trimmed sources in rank order
+        for (int i = 0; i < contents.size() && leftover > 0; i++) {
+            if (trimmed[i].droppedSections() > 0) {
+                long allocation = trimmed[i].size() + leftover;
+                trimmed[i] = trim(contents.get(i), allocation);
+                leftover = allocation - trimmed[i].size();
+            }
+        }
+
+        List<ContentData> kept = new ArrayList<>();
+        List<String> formatted = new ArrayList<>();
+        int droppedSections = 0;
+        int droppedSources = 0;
+        for (Trimmed source : trimmed) {
+            droppedSections += source.droppedSections();
+            if (source.content() == null) {
+                droppedSources++;
+                continue;
+            }
+            kept.add(source.content());
+            formatted.add(StructuredContentFormatter.toFormattedString(source.content()));
+        }
+
+        List<String> sourceUrls = kept.stream().map(ContentData::url).toList();
+        int estimatedTokens = instructionTokens
+                + estimateTokens(topic)
+                + estimateTokens(sourceUrls.toString())
+                + estimateTokens(formatted.toString());
+        return new Prompt(kept, formatted, sourceUrls, estimatedTokens, budgetTokens, droppedSections, droppedSources);
+    }
+
+    public int estimateTokens(String text) {
+        return text == null ? 0 : (int) Math.ceil(text.length() / charsPerToken);
+    }
+
+    /**
+     * Character allocation per source: weighted shares, with the unused part of
+     * sources smaller than their share redistributed to the rest
+     */
+    private static long[] allocate(List<ContentData> contents, long available) {
+        int n = contents.size();
+        long[] sizes = new long[n];
+        double[] weights = weights(contents);
+        for (int i = 0; i < n; i++) {
+            // ", " between the sources of the rendered list
+            sizes[i] = StructuredContentFormatter.toFormattedString(contents.get(i)).length() + 2L;
+        }
+
+        long[] allocations = new long[n];
+        boolean[] settled = new boolean[n];
+        long remaining = available;
+        boolean changed = true;
+        while (changed) {
+            changed = false;
+            double totalWeight = 0;
+            for (int i = 0; i < n; i++) {
+                if (!settled[i]) {
+                    totalWeight += weights[i];
+                }
+            }
+            if (totalWeight == 0) {
+                break;
+            }
+            long pool = remaining;
+            for (int i = 0; i < n; i++) {
+                if (!settled[i] && sizes[i] <= pool * weights[i] / totalWeight) {
+                    allocations[i] = sizes[i];
+                    settled[i] = true;
+                    remaining -= sizes[i];
+                    changed = true;
+                }
+            }
+            if (!changed) {
+                for (int i = 0; i < n; i++) {
+                    if (!settled[i]) {
+                        allocations[i] = (long) (remaining * weights[i] / totalWeight);
+                    }
+                }
+            }
+        }
+        return allocations;
+    }
+
+    /**
+     * Relative search score (floored) divided by the square root of the rank
+     */
+    private static double[] weights(List<ContentData> contents) {
+        double maxScore = 0;
+        for (ContentData content : contents) {
+            if (content.score() != null && content.score() > maxScore) {
+                maxScore = content.score();
+            }
+        }
+        double[] weights = new double[contents.size()];
+        for (int i = 0; i < weights.length; i++) {
+            Double score = contents.get(i).score();
+            double scoreWeight = maxScore > 0 && score != null
+                    ? Math.max(MIN_SCORE_WEIGHT, score / maxScore)
+                    : 1.0;
+            weights[i] = scoreWeight / Math.sqrt(i + 1);
+        }
+        return weights;
+    }
+
+    /**
+     * Trimmed source (null if left out), with its size in characters
+     */
+    private record Trimmed(ContentData content, int droppedSections, long size) {}
+
+    /**
+     * Keep the header and, in order, every section and subsection that still fits.
+     * Sizes mirror {@link StructuredContentFormatter#toFormattedString} exactly.
+     */
+    private static Trimmed trim(ContentData content, long allocation) {
+        long used = 2 // list separator
+                + "===  ===\n".length() + (content.title() != null ? content.title() : "Content").length()
+                + "Source: \n\n".length() + String.valueOf(content.url()).length()
+                + (isPresent(content.mainHeading()) ? line("## ", content.mainHeading()) + 1 : 0);
+
+        List<ContentData.SectionData> sections = new ArrayList<>();
+        int dropped = 0;
+        int characters = 0;
+        for (ContentData.SectionData section : content.sections()) {
+            long sectionSize = line("### ", section.heading()) + line("", section.content()) + 1;
+            if (used + sectionSize > allocation) {
+                dropped += 1 + section.subSections().size();
+                continue;
+            }
+            used += sectionSize;
+            characters += length(section.content());
+
+            List<ContentData.SubSectionData> subSections = new ArrayList<>();
+            for (ContentData.SubSectionData subSection : section.subSections()) {
+                long subSectionSize = 1 + line("#### ", subSection.heading()) + line("", subSection.content());
+                if (used + subSectionSize > allocation) {
+                    dropped++;
+                    continue;
+                }
+                used += subSectionSize;
+                characters += length(subSection.content());
+                subSections.add(subSection);
+            }
+            sections.add(subSections.size() == section.subSections().size()
+                    ? section
+                    : new ContentData.SectionData(section.heading(), section.content(), subSections));
+        }
+
+        if (sections.isEmpty()) {
+            return new Trimmed(null, dropped, 0);
+        }
+        if (dropped == 0) {
+            return new Trimmed(content, 0, used);
+        }
+        return new Trimmed(new ContentData(content.url(), content.title(), content.mainHeading(), sections,
+                characters, content.hasStructure(), content.engine(), content.score()), dropped, used);
+    }
+
+    /**
+     * Size of {@code prefix + text + "\n"}, or 0 for absent text
+     */
+    private static long line(String prefix, String text) {
+        return isPresent(text) ? prefix.length() + text.length() + 1 : 0;
+    }
+
+    private static boolean isPresent(String text) {
+        return text != null && !text.isEmpty();
+    }
+
+    private static int length(String text) {
+        return text != null ? text.length() : 0;
+    }
+}
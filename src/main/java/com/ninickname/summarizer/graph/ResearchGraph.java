@@ -5,8 +5,10 @@ import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 import java.util.*;
+import java.util.concurrent.BlockingQueue;
 import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.ExecutorService;
+import java.util.concurrent.LinkedBlockingQueue;
 import java.util.stream.Collectors;
 
 /**
@@ -34,51 +36,84 @@ public class ResearchGraph {
     }
 
     /**
-     * Execute the graph starting from OPTIMIZE_QUERY node
+     * Execute the graph starting from OPTIMIZE_QUERY node.
+     *
+     * Nodes are dispatched onto the executor as soon as they are ready, so independent
+     * branches (e.g. QUICK_SUMMARY and FETCH_CONTENT after WEB_SEARCH) run concurrently.
+     * A routed node is ready once every predecessor that was dispatched in this run has
+     * completed. Each node receives the merged state of all nodes completed so far, and
+     * its output is merged back when it joins.
      */
     public ResearchGraphState execute(ResearchGraphState initialState) {
         logger.info("Starting graph execution for topic: '{}'", initialState.getTopic());
 
-        ResearchGraphState currentState = initialState;
+        Map<NodeType, List<NodeType>> predecessors = buildPredecessors();
+        BlockingQueue<NodeCompletion> completions = new LinkedBlockingQueue<>();
+        Set<NodeType> dispatched = new HashSet<>();
         Set<NodeType> completed = new HashSet<>();
-        Queue<NodeType> queue = new LinkedList<>();
-
-        // Start with OPTIMIZE_QUERY as the entry point
-        queue.add(NodeType.OPTIMIZE_QUERY);
+        Set<NodeType> pending = new LinkedHashSet<>(); // Routed to, waiting on predecessors
 
-        while (!queue.isEmpty()) {
-            NodeType nodeType = queue.poll();
+        ResearchGraphState currentState = initialState;
+        int inFlight = 0;
 
-            // Skip if already completed (prevents infinite loops in current execution)
-            if (completed.contains(nodeType)) {
-                logger.debug("Node {} already completed in this execution, skipping", nodeType);
-                continue;
+        // Start with OPTIMIZE_QUERY as the entry point
+        pending.add(NodeType.OPTIMIZE_QUERY);
+
+        while (true) {
+            // Dispatch every pending node whose dispatched predecessors have all completed
+            Iterator<NodeType> it = pending.iterator();
+            while (it.hasNext()) {
+                NodeType nodeType = it.next();
+                if (!isReady(nodeType, predecessors, dispatched, completed)) {
+                    continue;
+                }
+                it.remove();
+
+                GraphNode node = nodes.get(nodeType);
+                if (node == null) {
+                    logger.warn("Node {} not found in graph, skipping", nodeType);
+                    completed.add(nodeType);
+                    continue;
+                }
+
+                dispatched.add(nodeType);
+                inFlight++;
+                dispatch(nodeType, node, currentState, completions);
             }
 
-            // Get the node
-            GraphNode node = nodes.get(nodeType);
-            if (node == null) {
-                logger.warn("Node {} not found in graph, skipping", nodeType);
-                completed.add(nodeType);
-                continue;
+            if (inFlight == 0) {
+                break;
             }
 
-            // Execute the node
-            logger.info("Executing node: {}", nodeType);
-            currentState = node.execute(currentState);
-            completed.add(nodeType);
-
-            // Get available edges for this node
-            List<NodeType> availableEdges = edges.getOrDefault(nodeType, List.of());
+            // Wait for the next node to finish and merge its output
+            NodeCompletion completion;
+            try {
+                completion = completions.take();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new IllegalStateException("Graph execution interrupted", e);
+            }
+            inFlight--;
+            completed.add(completion.nodeType());
+            currentState = currentState.merge(completion.state());
 
             // Let node decide which edges to follow (conditional routing)
-            List<NodeType> nextNodes = node.getNextNodes(currentState, availableEdges);
+            GraphNode node = nodes.get(completion.nodeType());
+            List<NodeType> availableEdges = edges.getOrDefault(completion.nodeType(), List.of());
+            List<NodeType> nextNodes = node.getNextNodes(completion.state(), availableEdges);
 
             if (nextNodes.isEmpty()) {
-                logger.info("Node {} has no next nodes - terminal node", nodeType);
+                logger.info("Node {} has no next nodes - terminal node", completion.nodeType());
             } else {
-                logger.debug("Node {} routing to: {}", nodeType, nextNodes);
-                queue.addAll(nextNodes);
+                logger.debug("Node {} routing to: {}", completion.nodeType(), nextNodes);
+                for (NodeType next : nextNodes) {
+                    // Skip if already dispatched (prevents infinite loops in current execution)
+                    if (dispatched.contains(next) || completed.contains(next)) {
+                        logger.debug("Node {} already executed in this execution, skipping", next);
+                        continue;
+                    }
+                    pending.add(next);
+                }
             }
         }
 
@@ -103,13 +138,56 @@ public class ResearchGraph {
     }
 
     /**
-     * Execute nodes in parallel where possible (advanced feature for future)
-     * This would require topological sort and dependency analysis
+     * Execute the whole graph off the caller thread
      */
     public CompletableFuture<ResearchGraphState> executeAsync(ResearchGraphState initialState) {
         return CompletableFuture.supplyAsync(() -> execute(initialState), executorService);
     }
 
+    /**
+     * Run a single node on the executor and report its output state to the completion queue
+     */
+    private void dispatch(NodeType nodeType, GraphNode node, ResearchGraphState input,
+                          BlockingQueue<NodeCompletion> completions) {
+        logger.info("Executing node: {}", nodeType);
+        CompletableFuture.supplyAsync(() -> node.execute(input), executorService)
+                .exceptionally(throwable -> {
+                    // BaseGraphNode records its own errors, this only guards custom nodes
+                    logger.error("Node {} failed: {}", nodeType, throwable.getMessage(), throwable);
+                    return input.toBuilder()
+                            .currentNode(nodeType)
+                            .recordNodeError(nodeType, throwable.getMessage())
+                            .build();
+                })
+                .thenAccept(state -> completions.add(new NodeCompletion(nodeType, state)));
+    }
+
+    /**
+     * A node is ready when none of its predecessors is still running in this execution
+     */
+    private boolean isReady(NodeType nodeType, Map<NodeType, List<NodeType>> predecessors,
+                            Set<NodeType> dispatched, Set<NodeType> completed) {
+        for (NodeType predecessor : predecessors.getOrDefault(nodeType, List.of())) {
+            if (dispatched.contains(predecessor) && !completed.contains(predecessor)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Invert the adjacency list (node -> nodes with an edge into it)
+     */
+    private Map<NodeType, List<NodeType>> buildPredecessors() {
+        Map<NodeType, List<NodeType>> predecessors = new HashMap<>();
+        edges.forEach((from, toList) ->
+                toList.forEach(to -> predecessors.computeIfAbsent(to, k -> new ArrayList<>()).add(from)));
+        return predecessors;
+    }
+
+    private record NodeCompletion(NodeType nodeType, ResearchGraphState state) {
+    }
+
     /**
      * Get graph structure for visualization/debugging
      */
@@ -3,6 +3,7 @@ package com.ninickname.summarizer.graph;
 import com.ninickname.summarizer.agents.QueryOptimizerAgent;
 import com.ninickname.summarizer.agents.QuickSummaryAgent;
 import com.ninickname.summarizer.agents.SummarizingAgent;
+import com.ninickname.summarizer.formatter.PromptBudgeter;
 import com.ninickname.summarizer.graph.nodes.*;
 import com.ninickname.summarizer.tool.ContentFetcherTool;
 import com.ninickname.summarizer.tool.WebSearchTool;
@@ -34,21 +35,35 @@ public class ResearchGraphBuilder {
     private final ContentFetcherTool contentFetcherTool;
     private final QuickSummaryAgent quickSummaryAgent;
     private final SummarizingAgent summarizingAgent;
+    private final PromptBudgeter promptBudgeter;
+
+    private boolean pipelinedFetch;
 
     public ResearchGraphBuilder(QueryOptimizerAgent queryOptimizerAgent,
                                 WebSearchTool webSearchTool,
                                 ContentFetcherTool contentFetcherTool,
                                 QuickSummaryAgent quickSummaryAgent,
                                 SummarizingAgent summarizingAgent,
+                                PromptBudgeter promptBudgeter,
                                 ExecutorService executorService) {
         this.queryOptimizerAgent = queryOptimizerAgent;
         this.webSearchTool = webSearchTool;
         this.contentFetcherTool = contentFetcherTool;
         this.quickSummaryAgent = quickSummaryAgent;
         this.summarizingAgent = summarizingAgent;
+        this.promptBudgeter = promptBudgeter;
         this.executorService = executorService;
     }
 
+    /**
+     * Start FETCH_CONTENT next to WEB_SEARCH rather than after it; states must then
+     * carry a search stream (see {@link ResearchGraphState#getSearchStream()})
+     */
+    public ResearchGraphBuilder pipelinedFetch(boolean pipelinedFetch) {
+        this.pipelinedFetch = pipelinedFetch;
+        return this;
+    }
+
     /**
      * Build the default research graph with all nodes and edges
      */
@@ -60,12 +75,16 @@ public class ResearchGraphBuilder {
         addNode(NodeType.WEB_SEARCH, new WebSearchNode(webSearchTool));
         addNode(NodeType.QUICK_SUMMARY, new QuickSummaryNode(quickSummaryAgent));
         addNode(NodeType.FETCH_CONTENT, new FetchContentNode(contentFetcherTool));
-        addNode(NodeType.COMPREHENSIVE_SUMMARY, new ComprehensiveSummaryNode(summarizingAgent));
+        addNode(NodeType.COMPREHENSIVE_SUMMARY, new ComprehensiveSummaryNode(summarizingAgent, promptBudgeter));
 
         // Define graph edges (flow) - flexible, not strictly DAG
         addEdge(NodeType.OPTIMIZE_QUERY, NodeType.WEB_SEARCH);
         addEdge(NodeType.WEB_SEARCH, NodeType.QUICK_SUMMARY);
-        addEdge(NodeType.WEB_SEARCH, NodeType.FETCH_CONTENT);
+        if (pipelinedFetch) {
+            addEdge(NodeType.OPTIMIZE_QUERY, NodeType.FETCH_CONTENT); // Fed by WEB_SEARCH through the stream
+        } else {
+            addEdge(NodeType.WEB_SEARCH, NodeType.FETCH_CONTENT);
+        }
         addEdge(NodeType.FETCH_CONTENT, NodeType.COMPREHENSIVE_SUMMARY);
 
         // Note: QUICK_SUMMARY and COMPREHENSIVE_SUMMARY are terminal nodes (return empty from getNextNodes())
@@ -3,9 +3,12 @@ package com.ninickname.summarizer.graph;
 import com.ninickname.summarizer.agents.QueryOptimizerAgent;
 import com.ninickname.summarizer.agents.QuickSummaryAgent;
 import com.ninickname.summarizer.agents.SummarizingAgent;
+import com.ninickname.summarizer.config.SearchProperties;
+import com.ninickname.summarizer.formatter.PromptBudgeter;
 import com.ninickname.summarizer.model.ResearchResult;
 import com.ninickname.summarizer.tool.ContentFetcherTool;
 import com.ninickname.summarizer.tool.WebSearchTool;
+import com.ninickname.summarizer.tool.search.SearchResultStream;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.stereotype.Service;
@@ -29,13 +32,17 @@ public class ResearchGraphService {
 
     private final ResearchGraph researchGraph;
     private final ExecutorService executorService;
+    private final SearchProperties.Pipeline pipeline;
 
     public ResearchGraphService(QueryOptimizerAgent queryOptimizerAgent,
                                 WebSearchTool webSearchTool,
                                 ContentFetcherTool contentFetcherTool,
                                 QuickSummaryAgent quickSummaryAgent,
-                                SummarizingAgent summarizingAgent) {
+                                SummarizingAgent summarizingAgent,
+                                PromptBudgeter promptBudgeter,
+                                SearchProperties searchProperties) {
         this.executorService = Executors.newCachedThreadPool();
+        this.pipeline = searchProperties.getPipeline();
 
         // Build the graph once on service initialization
         ResearchGraphBuilder builder = new ResearchGraphBuilder(
@@ -44,10 +51,13 @@ public class ResearchGraphService {
                 contentFetcherTool,
                 quickSummaryAgent,
                 summarizingAgent,
+                promptBudgeter,
                 executorService
         );
 
-        this.researchGraph = builder.buildDefaultGraph();
+        this.researchGraph = builder
+                .pipelinedFetch(pipeline.isEnabled())
+                .buildDefaultGraph();
         logger.info("ResearchGraphService initialized with graph: {}", researchGraph);
     }
 
@@ -61,6 +71,7 @@ public class ResearchGraphService {
         // Create initial state
         ResearchGraphState initialState = ResearchGraphState
                 .builder(topic, resultCount, skipContentFetch)
+                .searchStream(newSearchStream())
                 .build();
 
         // Execute the graph
@@ -84,6 +95,7 @@ public class ResearchGraphService {
                 ResearchGraphState initialState = ResearchGraphState
                         .builder(topic, resultCount, skipContentFetch)
                         .emitter(emitter)
+                        .searchStream(newSearchStream())
                         .build();
 
                 // Execute the graph
@@ -112,6 +124,13 @@ public class ResearchGraphService {
         return emitter;
     }
 
+    /**
+     * Search to fetch hand-off for one run, or null when the fetch waits for the search
+     */
+    private SearchResultStream newSearchStream() {
+        return pipeline.isEnabled() ? new SearchResultStream(pipeline.getBufferSize()) : null;
+    }
+
     /**
      * Get the graph for inspection/debugging
      */
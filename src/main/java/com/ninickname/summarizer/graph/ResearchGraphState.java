@@ -3,6 +3,7 @@ package com.ninickname.summarizer.graph;
 import com.ninickname.summarizer.model.ContentData;
 import com.ninickname.summarizer.model.ResearchResult;
 import com.ninickname.summarizer.model.SearxngResponse;
+import com.ninickname.summarizer.tool.search.SearchResultStream;
 import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
 
 import java.util.ArrayList;
@@ -18,6 +19,7 @@ import java.util.Map;
  * - Complete: Contains all data needed by any node
  * - Metadata: Tracks timing, errors, and progress
  * - SSE Support: Optional emitter for streaming updates
+ * - Pipelining: Optional stream carrying search results to the fetch node while searching
  */
 public class ResearchGraphState {
     // Input parameters
@@ -41,6 +43,9 @@ public class ResearchGraphState {
     // SSE support (optional)
     private final SseEmitter emitter;
 
+    // Search to fetch hand-off (optional, shared by the concurrent search and fetch nodes)
+    private final SearchResultStream searchStream;
+
     // Private constructor - use builder
     private ResearchGraphState(Builder builder) {
         this.topic = builder.topic;
@@ -56,6 +61,7 @@ public class ResearchGraphState {
         this.startTime = builder.startTime;
         this.currentNode = builder.currentNode;
         this.emitter = builder.emitter;
+        this.searchStream = builder.searchStream;
     }
 
     // Getters
@@ -111,6 +117,10 @@ public class ResearchGraphState {
         return emitter;
     }
 
+    public SearchResultStream getSearchStream() {
+        return searchStream;
+    }
+
     /**
      * Get total elapsed time since graph started
      */
@@ -138,6 +148,32 @@ public class ResearchGraphState {
         return result;
     }
 
+    /**
+     * Merge the output of a concurrently executed node into this state.
+     * Values set by the other state win, node timings and errors are combined.
+     */
+    public ResearchGraphState merge(ResearchGraphState other) {
+        Builder builder = toBuilder();
+        if (other.optimizedQuery != null) {
+            builder.optimizedQuery(other.optimizedQuery);
+        }
+        if (other.searchResults != null) {
+            builder.searchResults(other.searchResults);
+        }
+        if (other.quickSummary != null) {
+            builder.quickSummary(other.quickSummary);
+        }
+        if (other.structuredContents != null) {
+            builder.structuredContents(other.structuredContents);
+        }
+        if (other.comprehensiveSummary != null) {
+            builder.comprehensiveSummary(other.comprehensiveSummary);
+        }
+        other.nodeDurations.forEach(builder::recordNodeDuration);
+        other.nodeErrors.forEach(builder::recordNodeError);
+        return builder.currentNode(other.currentNode).build();
+    }
+
     /**
      * Create a new state with updated values (immutable pattern)
      */
@@ -169,6 +205,7 @@ public class ResearchGraphState {
         private long startTime;
         private NodeType currentNode;
         private SseEmitter emitter;
+        private SearchResultStream searchStream;
 
         // Initial builder
         public Builder(String topic, int resultCount, boolean skipContentFetch) {
@@ -194,6 +231,7 @@ public class ResearchGraphState {
             this.startTime = state.startTime;
             this.currentNode = state.currentNode;
             this.emitter = state.emitter;
+            this.searchStream = state.searchStream;
         }
 
         public Builder optimizedQuery(String optimizedQuery) {
@@ -241,6 +279,11 @@ public class ResearchGraphState {
             return this;
         }
 
+        public Builder searchStream(SearchResultStream searchStream) {
+            this.searchStream = searchStream;
+            return this;
+        }
+
         public ResearchGraphState build() {
             return new ResearchGraphState(this);
         }
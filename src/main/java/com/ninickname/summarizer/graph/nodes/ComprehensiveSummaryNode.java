@@ -1,10 +1,11 @@
 package com.ninickname.summarizer.graph.nodes;
 
 import com.ninickname.summarizer.agents.SummarizingAgent;
-import com.ninickname.summarizer.formatter.StructuredContentFormatter;
+import com.ninickname.summarizer.formatter.PromptBudgeter;
 import com.ninickname.summarizer.graph.NodeType;
 import com.ninickname.summarizer.graph.ResearchGraphState;
 import com.ninickname.summarizer.model.ContentData;
+import dev.langchain4j.service.Result;
 
 import java.util.List;
 
@@ -13,10 +14,12 @@ import java.util.List;
  */
 public class ComprehensiveSummaryNode extends BaseGraphNode {
     private final SummarizingAgent summarizingAgent;
+    private final PromptBudgeter promptBudgeter;
 
-    public ComprehensiveSummaryNode(SummarizingAgent summarizingAgent) {
+    public ComprehensiveSummaryNode(SummarizingAgent summarizingAgent, PromptBudgeter promptBudgeter) {
         super(NodeType.COMPREHENSIVE_SUMMARY);
         this.summarizingAgent = summarizingAgent;
+        this.promptBudgeter = promptBudgeter;
     }
 
     @Override
@@ -44,23 +47,21 @@ public class ComprehensiveSummaryNode extends BaseGraphNode {
 
         logger.info("Creating comprehensive summary from {} sources", structuredContents.size());
 
-        // Convert to formatted strings
-        List<String> formattedContents = structuredContents.stream()
-                .map(StructuredContentFormatter::toFormattedString)
-                .toList();
+        // Trim sources to the model's context window instead of letting Ollama truncate
+        PromptBudgeter.Prompt prompt = promptBudgeter.assemble(state.getTopic(), structuredContents);
+        logger.info("Summary prompt: ~{} of {} tokens estimated, {} sources ({} dropped), {} sections trimmed",
+                prompt.estimatedTokens(), prompt.budgetTokens(), prompt.contents().size(),
+                prompt.droppedSources(), prompt.droppedSections());
 
-        // Extract source URLs
-        List<String> sourceUrls = structuredContents.stream()
-                .map(ContentData::url)
-                .toList();
-
-        String comprehensiveSummary = summarizingAgent.summarizeResearch(
+        Result<String> result = summarizingAgent.summarizeResearch(
                 state.getTopic(),
-                formattedContents,
-                sourceUrls
+                prompt.formattedContents(),
+                prompt.sourceUrls()
         );
+        String comprehensiveSummary = result.content();
 
-        logger.info("Comprehensive summary generated");
+        logger.info("Comprehensive summary generated - prompt tokens: {} actual vs ~{} estimated",
+                result.tokenUsage() != null ? result.tokenUsage().inputTokenCount() : null, prompt.estimatedTokens());
         emitProgress(state, "comprehensive_summary", comprehensiveSummary);
 
         return state.toBuilder()
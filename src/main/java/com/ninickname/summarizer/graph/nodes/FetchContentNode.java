@@ -6,14 +6,19 @@ import com.ninickname.summarizer.graph.ResearchGraphState;
 import com.ninickname.summarizer.model.ContentData;
 import com.ninickname.summarizer.model.SearxngResult;
 import com.ninickname.summarizer.tool.ContentFetcherTool;
+import com.ninickname.summarizer.tool.search.SearchResultStream;
+import com.ninickname.summarizer.util.UrlCanonicalizer;
 
-import java.util.ArrayList;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.function.Function;
 import java.util.stream.Collectors;
 
 /**
  * Node that fetches structured content from URLs.
+ * With a search stream in the state it runs alongside the web search node and fetches
+ * results as they are published; otherwise it fetches the completed search results.
  */
 public class FetchContentNode extends BaseGraphNode {
     private final ContentFetcherTool contentFetcherTool;
@@ -38,91 +43,70 @@ public class FetchContentNode extends BaseGraphNode {
     @Override
     protected ResearchGraphState executeInternal(ResearchGraphState state) {
         int resultCount = state.getResultCount();
-        var searchResults = state.getSearchResults();
-
-        // Create URL to metadata map
-        var urlToSearchResult = searchResults.results().stream()
-                .collect(Collectors.toMap(
-                        SearxngResult::url,
-                        r -> r,
-                        (a, b) -> a // Keep first in case of duplicates
-                ));
-
-        List<String> allUrls = searchResults.results().stream()
-                .map(SearxngResult::url)
-                .toList();
-
-        logger.info("Fetching structured content (target: {} sources, available: {} URLs)",
-                resultCount, allUrls.size());
-
-        // Fetch in batches until we have enough content
-        List<ContentData> structuredContents = new ArrayList<>();
-        int batchSize = Math.min(resultCount * 2, allUrls.size());
-        int urlIndex = 0;
-
-        while (structuredContents.size() < resultCount && urlIndex < allUrls.size()) {
-            int endIndex = Math.min(urlIndex + batchSize, allUrls.size());
-            List<String> urlBatch = allUrls.subList(urlIndex, endIndex);
-
-            logger.info("Fetching batch of {} URLs (current: {}/{}, index: {}-{})",
-                    urlBatch.size(), structuredContents.size(), resultCount, urlIndex, endIndex);
-
-            var batchResults = contentFetcherTool.fetchMultipleStructuredContents(urlBatch);
-
-            // Filter and enrich content
-            for (ContentData content : batchResults) {
-                if (content == null || content.totalCharacters() < 150) {
-                    logger.debug("Skipping low-quality content ({} chars)",
-                            content != null ? content.totalCharacters() : 0);
-                    continue;
-                }
-
-                // Enrich with search metadata
-                SearxngResult searchResult = urlToSearchResult.get(content.url());
-                if (searchResult != null) {
-                    ContentData enrichedContent = new ContentData(
-                            content.url(),
-                            content.title(),
-                            content.mainHeading(),
-                            content.sections(),
-                            content.totalCharacters(),
-                            content.hasStructure(),
-                            searchResult.engine(),
-                            searchResult.score()
-                    );
-                    structuredContents.add(enrichedContent);
-                } else {
-                    structuredContents.add(content);
-                }
-            }
-
-            urlIndex = endIndex;
-
-            if (structuredContents.size() >= resultCount) {
-                break;
-            }
-
-            // Adjust batch size for remaining URLs
-            batchSize = resultCount - structuredContents.size() + 2;
-        }
-
-        // Limit to requested count
-        if (structuredContents.size() > resultCount) {
-            structuredContents = structuredContents.subList(0, resultCount);
+        SearchResultStream stream = state.getSearchStream();
+
+        List<ContentData> fetched;
+        Function<ContentData, ContentData> enricher;
+        if (stream != null) {
+            logger.info("Fetching structured content (target: {} sources) as search results arrive", resultCount);
+            enricher = content -> content.withSearchResult(stream.resultFor(content.url()));
+
+            // Fetching starts with the first search page; the stream is closed at the quorum
+            fetched = contentFetcherTool.fetchUntilQuorum(stream, resultCount,
+                    content -> emitContent(state, enricher.apply(content)));
+        } else {
+            var searchResults = state.getSearchResults();
+
+            // Create canonical URL to metadata map
+            var urlToSearchResult = searchResults.results().stream()
+                    .collect(Collectors.toMap(
+                            r -> UrlCanonicalizer.canonicalize(r.url()),
+                            r -> r,
+                            (a, b) -> a // Keep first in case of duplicates
+                    ));
+            enricher = content -> content.withSearchResult(
+                    urlToSearchResult.get(UrlCanonicalizer.canonicalize(content.url())));
+
+            List<String> allUrls = searchResults.results().stream()
+                    .map(SearxngResult::url)
+                    .toList();
+
+            logger.info("Fetching structured content (target: {} sources, available: {} URLs)",
+                    resultCount, allUrls.size());
+
+            // Accept pages as they complete and stream each one to the client right away;
+            // stragglers are cancelled once we have enough
+            fetched = contentFetcherTool.fetchUntilQuorum(allUrls, resultCount,
+                    content -> emitContent(state, enricher.apply(content)));
         }
+        List<ContentData> structuredContents = fetched.stream()
+                .map(enricher)
+                .toList();
 
         logger.info("Fetched {} structured contents (target: {})",
                 structuredContents.size(), resultCount);
 
-        // Emit for SSE
+        // Final summary: counts plus the search-rank order of the streamed documents
+        Map<String, Object> summary = new LinkedHashMap<>();
+        summary.put("fetched", structuredContents.size());
+        summary.put("target", resultCount);
+        summary.put("urls", structuredContents.stream().map(ContentData::url).toList());
         try {
-            emitProgress(state, "structured_contents", objectMapper.writeValueAsString(structuredContents));
+            emitProgress(state, "structured_contents_complete", objectMapper.writeValueAsString(summary));
         } catch (Exception e) {
-            logger.warn("Failed to serialize structured contents: {}", e.getMessage());
+            logger.warn("Failed to serialize fetch summary: {}", e.getMessage());
         }
 
         return state.toBuilder()
                 .structuredContents(structuredContents)
                 .build();
     }
+
+    private void emitContent(ResearchGraphState state, ContentData content) {
+        try {
+            emitProgress(state, "structured_content", objectMapper.writeValueAsString(content));
+        } catch (Exception e) {
+            logger.warn("Failed to serialize structured content: {}", e.getMessage());
+        }
+    }
 }
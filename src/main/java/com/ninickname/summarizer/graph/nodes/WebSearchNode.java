@@ -5,9 +5,12 @@ import com.ninickname.summarizer.graph.NodeType;
 import com.ninickname.summarizer.graph.ResearchGraphState;
 import com.ninickname.summarizer.model.SearxngResponse;
 import com.ninickname.summarizer.tool.WebSearchTool;
+import com.ninickname.summarizer.tool.search.SearchResultStream;
 
 /**
  * Node that performs web search using the optimized query.
+ * With a search stream in the state, each result is also published to it as its page
+ * is read, for the fetch node running alongside.
  */
 public class WebSearchNode extends BaseGraphNode {
     private final WebSearchTool webSearchTool;
@@ -26,7 +29,17 @@ public class WebSearchNode extends BaseGraphNode {
 
         logger.info("Searching for '{}' with target count: {}", query, resultCount);
 
-        SearxngResponse searchResults = webSearchTool.search(query, resultCount);
+        SearxngResponse searchResults;
+        SearchResultStream stream = state.getSearchStream();
+        if (stream == null) {
+            searchResults = webSearchTool.search(query, resultCount);
+        } else {
+            try {
+                searchResults = webSearchTool.search(query, resultCount, stream::publish);
+            } finally {
+                stream.complete(); // Also on failure, so the fetch node does not wait for more
+            }
+        }
 
         logger.info("Found {} search results", searchResults.results().size());
 
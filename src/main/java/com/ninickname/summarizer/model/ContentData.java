@@ -15,6 +15,17 @@ public record ContentData(
         String engine,
         Double score
 ) {
+    /**
+     * Copy with engine and score from the page's search result; this content if there is none
+     */
+    public ContentData withSearchResult(SearxngResult searchResult) {
+        if (searchResult == null) {
+            return this;
+        }
+        return new ContentData(url, title, mainHeading, sections, totalCharacters, hasStructure,
+                searchResult.engine(), searchResult.score());
+    }
+
     public record SectionData(
             String heading,
             String content,
@@ -4,18 +4,22 @@ import com.fasterxml.jackson.databind.ObjectMapper;
 import com.ninickname.summarizer.agents.QueryOptimizerAgent;
 import com.ninickname.summarizer.agents.QuickSummaryAgent;
 import com.ninickname.summarizer.agents.SummarizingAgent;
+import com.ninickname.summarizer.formatter.PromptBudgeter;
 import com.ninickname.summarizer.model.ResearchResult;
 import com.ninickname.summarizer.model.SearxngResponse;
 import com.ninickname.summarizer.model.SearxngResult;
 import com.ninickname.summarizer.model.ContentData;
 import com.ninickname.summarizer.tool.ContentFetcherTool;
 import com.ninickname.summarizer.tool.WebSearchTool;
+import com.ninickname.summarizer.util.UrlCanonicalizer;
+import dev.langchain4j.service.Result;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.stereotype.Service;
 import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
 
 import java.util.List;
+import java.util.Map;
 import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.ExecutorService;
 import java.util.concurrent.Executors;
@@ -28,6 +32,7 @@ public class ResearchOrchestrator {
     private final ContentFetcherTool contentFetcherTool;
     private final QuickSummaryAgent quickSummaryAgent;
     private final SummarizingAgent summarizingAgent;
+    private final PromptBudgeter promptBudgeter;
     private final ObjectMapper objectMapper;
     private final ExecutorService executorService;
 
@@ -35,12 +40,14 @@ public class ResearchOrchestrator {
                                 WebSearchTool webSearchTool,
                                 ContentFetcherTool contentFetcherTool,
                                 QuickSummaryAgent quickSummaryAgent,
-                                SummarizingAgent summarizingAgent) {
+                                SummarizingAgent summarizingAgent,
+                                PromptBudgeter promptBudgeter) {
         this.queryOptimizerAgent = queryOptimizerAgent;
         this.webSearchTool = webSearchTool;
         this.contentFetcherTool = contentFetcherTool;
         this.quickSummaryAgent = quickSummaryAgent;
         this.summarizingAgent = summarizingAgent;
+        this.promptBudgeter = promptBudgeter;
         this.objectMapper = new ObjectMapper();
         this.executorService = Executors.newCachedThreadPool();
     }
@@ -192,10 +199,10 @@ public class ResearchOrchestrator {
                                        ResearchResult result, SseEmitter emitter) {
         long startTime = System.currentTimeMillis();
 
-        // Create a map from URL to search result for metadata lookup
+        // Create a map from canonical URL to search result for metadata lookup
         var urlToSearchResult = searchResults.results().stream()
                 .collect(java.util.stream.Collectors.toMap(
-                        SearxngResult::url,
+                        r -> UrlCanonicalizer.canonicalize(r.url()),
                         r -> r,
                         (a, b) -> a // In case of duplicates, keep first
                 ));
@@ -210,64 +217,16 @@ public class ResearchOrchestrator {
                 resultCount, allUrls.size());
         emitProgress(emitter, "step", "fetching_content");
 
-        // Fetch from URLs in batches until we have enough content
-        List<ContentData> structuredContents = new java.util.ArrayList<>();
-        int batchSize = Math.min(resultCount * 2, allUrls.size()); // Fetch 2x what we need initially
-        int urlIndex = 0;
-
-        while (structuredContents.size() < resultCount && urlIndex < allUrls.size()) {
-            int endIndex = Math.min(urlIndex + batchSize, allUrls.size());
-            List<String> urlBatch = allUrls.subList(urlIndex, endIndex);
-
-            logger.info("Fetching batch of {} URLs (current: {}/{}, index: {}-{})",
-                    urlBatch.size(), structuredContents.size(), resultCount, urlIndex, endIndex);
-
-            var batchResults = contentFetcherTool.fetchMultipleStructuredContents(urlBatch);
-
-            // Populate engine and score from search results, filter out empty/low-quality content
-            for (ContentData content : batchResults) {
-                // Skip null, empty, or low-quality content (< 150 characters)
-                if (content == null || content.totalCharacters() < 150) {
-                    logger.warn("Skipping low-quality content ({} chars) from URL: {}",
-                            content != null ? content.totalCharacters() : 0,
-                            content != null ? content.url() : "unknown");
-                    continue;
-                }
-
-                SearxngResult searchResult = urlToSearchResult.get(content.url());
-                if (searchResult != null) {
-                    // Create new ContentData with engine and score populated
-                    ContentData enrichedContent = new ContentData(
-                            content.url(),
-                            content.title(),
-                            content.mainHeading(),
-                            content.sections(),
-                            content.totalCharacters(),
-                            content.hasStructure(),
-                            searchResult.engine(),
-                            searchResult.score()
-                    );
-                    structuredContents.add(enrichedContent);
-                } else {
-                    structuredContents.add(content);
-                }
-            }
-
-            urlIndex = endIndex;
+        java.util.function.UnaryOperator<ContentData> enrich = content ->
+                content.withSearchResult(urlToSearchResult.get(UrlCanonicalizer.canonicalize(content.url())));
 
-            // If we have enough, break
-            if (structuredContents.size() >= resultCount) {
-                break;
-            }
-
-            // If we still need more and have more URLs, continue with smaller batches
-            batchSize = resultCount - structuredContents.size() + 2; // +2 buffer for failures
-        }
-
-        // Limit to requested count
-        if (structuredContents.size() > resultCount) {
-            structuredContents = structuredContents.subList(0, resultCount);
-        }
+        // Accept pages in completion order until enough pass the quality filter, topping up
+        // from the remaining URLs on failures; each page is streamed to the client as it arrives
+        List<ContentData> structuredContents = contentFetcherTool
+                .fetchUntilQuorum(allUrls, resultCount, content -> emitContent(emitter, enrich.apply(content)))
+                .stream()
+                .map(enrich)
+                .toList();
 
         long duration = System.currentTimeMillis() - startTime;
 
@@ -277,10 +236,15 @@ public class ResearchOrchestrator {
 
         result.setStructuredContents(structuredContents);
 
+        // Final summary: counts plus the search-rank order of the streamed documents
+        Map<String, Object> summary = new java.util.LinkedHashMap<>();
+        summary.put("fetched", structuredContents.size());
+        summary.put("target", resultCount);
+        summary.put("urls", structuredContents.stream().map(ContentData::url).toList());
         try {
-            emitProgress(emitter, "structured_contents", objectMapper.writeValueAsString(structuredContents));
+            emitProgress(emitter, "structured_contents_complete", objectMapper.writeValueAsString(summary));
         } catch (Exception e) {
-            logger.warn("Failed to serialize structured contents for progress: {}", e.getMessage());
+            logger.warn("Failed to serialize fetch summary for progress: {}", e.getMessage());
         }
 
         return duration;
@@ -294,20 +258,20 @@ public class ResearchOrchestrator {
             logger.info("Step 5: Creating comprehensive summary from {} sources...", structuredContents.size());
             emitProgress(emitter, "step", "comprehensive_summary");
 
-            // Convert to formatted strings for the summarizing agent
-            List<String> formattedContents = structuredContents.stream()
-                    .map(com.ninickname.summarizer.formatter.StructuredContentFormatter::toFormattedString)
-                    .toList();
-
-            // Extract source URLs for citation
-            List<String> sourceUrls = structuredContents.stream()
-                    .map(ContentData::url)
-                    .toList();
+            // Trim sources to the model's context window, keeping the URLs of the sources that remain
+            PromptBudgeter.Prompt prompt = promptBudgeter.assemble(topic, structuredContents);
+            logger.info("Summary prompt: ~{} of {} tokens estimated, {} sources ({} dropped), {} sections trimmed",
+                    prompt.estimatedTokens(), prompt.budgetTokens(), prompt.contents().size(),
+                    prompt.droppedSources(), prompt.droppedSections());
 
-            String comprehensiveSummary = summarizingAgent.summarizeResearch(topic, formattedContents, sourceUrls);
+            Result<String> summary = summarizingAgent.summarizeResearch(
+                    topic, prompt.formattedContents(), prompt.sourceUrls());
+            String comprehensiveSummary = summary.content();
             long duration = System.currentTimeMillis() - startTime;
 
-            logger.info("Step 5 completed in {}ms - Comprehensive summary generated", duration);
+            logger.info("Step 5 completed in {}ms - Comprehensive summary generated, prompt tokens: {} actual vs ~{} estimated",
+                    duration, summary.tokenUsage() != null ? summary.tokenUsage().inputTokenCount() : null,
+                    prompt.estimatedTokens());
             result.setComprehensiveSummary(comprehensiveSummary);
             emitProgress(emitter, "comprehensive_summary", comprehensiveSummary);
 
@@ -320,6 +284,17 @@ public class ResearchOrchestrator {
         }
     }
 
+    private void emitContent(SseEmitter emitter, ContentData content) {
+        if (emitter == null) {
+            return;
+        }
+        try {
+            emitProgress(emitter, "structured_content", objectMapper.writeValueAsString(content));
+        } catch (Exception e) {
+            logger.warn("Failed to serialize structured content for progress: {}", e.getMessage());
+        }
+    }
+
     private void emitProgress(SseEmitter emitter, String eventType, String data) {
         if (emitter == null) {
             return;
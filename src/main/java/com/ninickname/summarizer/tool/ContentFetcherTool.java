@@ -1,64 +1,228 @@
 package com.ninickname.summarizer.tool;
 
+import com.ninickname.summarizer.cache.CachedContent;
+import com.ninickname.summarizer.cache.ContentCache;
+import com.ninickname.summarizer.cache.NegativeCache;
+import com.ninickname.summarizer.config.FetchProperties;
 import com.ninickname.summarizer.model.ContentData;
+import com.ninickname.summarizer.model.SearxngResult;
+import com.ninickname.summarizer.tool.fetch.ApacheFetchTransport;
+import com.ninickname.summarizer.tool.fetch.CappedBody;
+import com.ninickname.summarizer.tool.fetch.CappedBodyHandler;
+import com.ninickname.summarizer.tool.fetch.FetchExecutor;
+import com.ninickname.summarizer.tool.fetch.FetchResponse;
+import com.ninickname.summarizer.tool.fetch.FetchTimeoutException;
+import com.ninickname.summarizer.tool.fetch.FetchTransport;
+import com.ninickname.summarizer.tool.fetch.FetchTransportType;
+import com.ninickname.summarizer.tool.fetch.HostLatencyTracker;
+import com.ninickname.summarizer.tool.fetch.HostQuarantine;
+import com.ninickname.summarizer.tool.fetch.HostScheduler;
+import com.ninickname.summarizer.tool.fetch.JdkFetchTransport;
+import com.ninickname.summarizer.tool.fetch.PageArchive;
+import com.ninickname.summarizer.tool.fetch.RecordingFetchTransport;
+import com.ninickname.summarizer.tool.fetch.RedirectMemo;
+import com.ninickname.summarizer.tool.fetch.ReplayFetchTransport;
+import com.ninickname.summarizer.tool.fetch.RejectReason;
+import com.ninickname.summarizer.tool.search.SearchResultStream;
+import com.ninickname.summarizer.util.UrlCanonicalizer;
 import dev.langchain4j.agent.tool.Tool;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
 import org.jsoup.Jsoup;
 import org.jsoup.nodes.Document;
 import org.jsoup.nodes.Element;
 import org.jsoup.select.Elements;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Component;
 
+import java.io.ByteArrayInputStream;
 import java.io.IOException;
+import java.io.UncheckedIOException;
 import java.net.URI;
-import java.net.http.HttpClient;
-import java.net.http.HttpRequest;
-import java.net.http.HttpResponse;
+import java.nio.charset.Charset;
+import java.nio.file.Path;
 import java.time.Duration;
 import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CancellationException;
 import java.util.concurrent.CompletableFuture;
-import java.util.concurrent.CompletionException;
-import java.util.concurrent.ExecutorService;
-import java.util.concurrent.Executors;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+import java.util.concurrent.FutureTask;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.function.Consumer;
+import java.util.function.Supplier;
 
 @Component
 public class ContentFetcherTool {
     private static final Logger logger = LoggerFactory.getLogger(ContentFetcherTool.class);
     private static final int MAX_CONTENT_LENGTH = 15000;
     private static final int MAX_SECTION_LENGTH = 3000; // Increased for Wikipedia and long articles
-    private static final Duration TIMEOUT = Duration.ofSeconds(30);
 
-    private final HttpClient httpClient;
-    private final ExecutorService executorService;
+    /**
+     * Pages with less extracted text than this do not count towards a fetch quorum
+     */
+    public static final int MIN_CONTENT_CHARACTERS = 150;
+
+    /**
+     * Wake-up token queued next to completed fetches when a streamed source gets more URLs
+     */
+    private static final Future<ContentData> MORE_URLS = CompletableFuture.completedFuture(null);
+
+    private final FetchTransport transport;
+    private final FetchExecutor fetchExecutor;
+    private final int maxBodyBytes;
+    private final RedirectMemo redirectMemo;
+    private final boolean rangeRequests;
+    private final HostScheduler hostScheduler;
+    private final HostLatencyTracker latencyTracker;
+    private final Duration fetchBudget;
+    private final ContentCache contentCache;
+    private final NegativeCache negativeCache;
+    private final HostQuarantine hostQuarantine;
+    private final Map<RejectReason, Counter> rejections = new EnumMap<>(RejectReason.class);
+    private final int dedupMaxDistance; // negative if deduplication is off
+    private final Counter duplicates;
+    private final Counter negativeCacheSkips;
+    private final Counter quarantineSkips;
 
     public ContentFetcherTool() {
-        this.httpClient = HttpClient.newBuilder()
-                .connectTimeout(TIMEOUT)
-                .followRedirects(HttpClient.Redirect.NORMAL)
-                .build();
-        this.executorService = Executors.newFixedThreadPool(10);
+        this(new FetchProperties());
     }
 
     public ContentFetcherTool(int threadPoolSize) {
-        this.httpClient = HttpClient.newBuilder()
-                .connectTimeout(TIMEOUT)
-                .followRedirects(HttpClient.Redirect.NORMAL)
-                .build();
-        this.executorService = Executors.newFixedThreadPool(threadPoolSize);
+        this(withPoolSize(threadPoolSize));
     }
 
+    public ContentFetcherTool(FetchProperties properties) {
+        this(properties, new SimpleMeterRegistry());
+    }
+
+    @Autowired
+    public ContentFetcherTool(FetchProperties properties, MeterRegistry meterRegistry) {
+        FetchProperties.Executor executor = properties.getExecutor();
+        FetchProperties.Host host = properties.getHost();
+        FetchProperties.Timeout timeout = properties.getTimeout();
+        this.transport = createTransport(properties, meterRegistry);
+        this.fetchExecutor = FetchExecutor.create(executor.getMode(), executor.getPoolSize(), executor.getMaxConcurrency());
+        this.maxBodyBytes = properties.getMaxBodyBytes();
+        this.redirectMemo = new RedirectMemo(
+                properties.getTransport().getRedirectTtl(), properties.getTransport().getRedirectEntries());
+        this.rangeRequests = properties.isRangeRequests();
+        this.hostScheduler = new HostScheduler(host.getMaxConcurrency(), host.getMinSpacing(), meterRegistry);
+        this.latencyTracker = new HostLatencyTracker(timeout.getWindow(), timeout.getMinSamples(),
+                timeout.getPercentile(), timeout.getMultiplier(), timeout.getMin(), timeout.getMax());
+        this.fetchBudget = timeout.getBudget();
+        this.contentCache = createContentCache(properties.getCache(), meterRegistry);
+        this.negativeCache = new NegativeCache(
+                properties.getCache().getNegativeTtl(), properties.getCache().getNegativeEntries(), meterRegistry);
+        FetchProperties.Quarantine quarantine = properties.getQuarantine();
+        this.hostQuarantine = new HostQuarantine(quarantine.isEnabled(), quarantine.getWindow(),
+                quarantine.getMinSamples(), quarantine.getMinSuccessRate(), quarantine.getProbeInterval(), meterRegistry);
+        this.dedupMaxDistance = properties.getDedup().isEnabled() ? properties.getDedup().getMaxDistance() : -1;
+        this.duplicates = Counter.builder("fetch.duplicates")
+                .description("Fetched pages dropped as near-duplicates of an accepted page")
+                .register(meterRegistry);
+        this.negativeCacheSkips = Counter.builder("fetch.skipped")
+                .description("URLs skipped without network I/O after earlier failures")
+                .tag("reason", "negative-cache")
+                .register(meterRegistry);
+        this.quarantineSkips = Counter.builder("fetch.skipped")
+                .description("URLs skipped without network I/O after earlier failures")
+                .tag("reason", "quarantine")
+                .register(meterRegistry);
+        for (RejectReason reason : RejectReason.values()) {
+            rejections.put(reason, Counter.builder("fetch.rejected")
+                    .description("Responses refused from their headers, before the body was downloaded")
+                    .tag("reason", reason.tag())
+                    .register(meterRegistry));
+        }
+    }
+
+    private static FetchTransport createTransport(FetchProperties properties, MeterRegistry meterRegistry) {
+        FetchProperties.Archive archive = properties.getArchive();
+        if (properties.getTransport().getType() == FetchTransportType.REPLAY) {
+            logger.info("Fetch transport: replay from page archive {} (latency x{})",
+                    archive.getDirectory(), archive.getLatencyScale());
+            return new ReplayFetchTransport(openArchive(archive), archive.getLatencyScale(), meterRegistry);
+        }
+        FetchTransport network = createNetworkTransport(properties, meterRegistry);
+        if (archive.isRecord()) {
+            logger.info("Recording fetched responses to page archive {}", archive.getDirectory());
+            return new RecordingFetchTransport(network, openArchive(archive));
+        }
+        return network;
+    }
+
+    private static PageArchive openArchive(FetchProperties.Archive archive) {
+        try {
+            return PageArchive.open(Path.of(archive.getDirectory()));
+        } catch (IOException e) {
+            throw new UncheckedIOException("Cannot open page archive " + archive.getDirectory(), e);
+        }
+    }
+
+    private static FetchTransport createNetworkTransport(FetchProperties properties, MeterRegistry meterRegistry) {
+        FetchProperties.Transport transport = properties.getTransport();
+        Duration connectTimeout = properties.getTimeout().getMax();
+        long maxContentLength = properties.getMaxContentLength().toBytes();
+        if (transport.getType() == FetchTransportType.JDK) {
+            logger.info("Fetch transport: java.net.http");
+            return new JdkFetchTransport(connectTimeout,
+                    new CappedBodyHandler(properties.getMaxBodyBytes(), maxContentLength));
+        }
+        logger.info("Fetch transport: Apache async client, {} connections ({} per route), HTTP/2 {}",
+                transport.getMaxConnections(), transport.getMaxConnectionsPerRoute(),
+                transport.isHttp2() ? "negotiated" : "off");
+        return new ApacheFetchTransport(transport.getMaxConnections(), transport.getMaxConnectionsPerRoute(),
+                transport.isHttp2(), connectTimeout, transport.getDnsTtl(),
+                properties.getMaxBodyBytes(), maxContentLength, meterRegistry);
+    }
+
+    private static ContentCache createContentCache(FetchProperties.Cache cache, MeterRegistry meterRegistry) {
+        String directory = cache.getDiskDirectory();
+        return new ContentCache(
+                cache.isEnabled(),
+                cache.getTtl(),
+                cache.getMaxStale(),
+                cache.getMemoryEntries(),
+                directory == null || directory.isBlank() ? null : Path.of(directory),
+                cache.getDiskMaxSize().toBytes(),
+                meterRegistry);
+    }
+
+
+    private static FetchProperties withPoolSize(int threadPoolSize) {
+        FetchProperties properties = new FetchProperties();
+        properties.getExecutor().setPoolSize(threadPoolSize);
+        return properties;
+    }
 
     @Tool("Fetch structured content from URLs in parallel")
     public List<ContentData> fetchMultipleStructuredContents(List<String> urls) {
         logger.info("ContentFetcherTool: Fetching structured content from {} URLs", urls.size());
         try {
-            List<CompletableFuture<ContentData>> futures = urls.stream()
-                    .map(this::fetchStructuredContentAsync)
-                    .toList();
+            // Submit round-robin across hosts so one clustered host does not hold up the rest
+            Map<String, CompletableFuture<ContentData>> futuresByUrl = new HashMap<>();
+            for (String url : HostScheduler.interleaveByHost(urls)) {
+                futuresByUrl.computeIfAbsent(url, this::fetchStructuredContentAsync);
+            }
 
-            List<ContentData> contents = futures.stream()
+            // Collect in the original (search rank) order
+            List<ContentData> contents = urls.stream()
+                    .map(futuresByUrl::get)
                     .map(CompletableFuture::join)
                     .filter(content -> content != null && !content.sections().isEmpty())
                     .toList();
@@ -72,34 +236,245 @@ public class ContentFetcherTool {
     }
 
 
-    private CompletableFuture<ContentData> fetchStructuredContentAsync(String url) {
-        return CompletableFuture.supplyAsync(() -> {
-            try {
-                return fetchStructuredContent(url);
-            } catch (Exception e) {
-                logger.warn("Failed to fetch structured content from {}: {}", url, e.getMessage());
-                throw new CompletionException(e);
+    /**
+     * Fetch in completion order until {@code target} pages pass the quality filter.
+     *
+     * Opens a window of {@code 2 * target} URLs in rank order and tops up from the
+     * remaining URLs whenever a fetch fails, yields too little text or near-duplicates
+     * a page already accepted (see {@link NearDuplicateFilter}). Once the quorum
+     * is reached the fetches still in flight are cancelled, so the slowest page no
+     * longer gates the step. Results come back in the original (search rank) order.
+     */
+    public List<ContentData> fetchUntilQuorum(List<String> urls, int target) {
+        return fetchUntilQuorum(urls, target, content -> { });
+    }
+
+    /**
+     * Same as {@link #fetchUntilQuorum(List, int)}, also handing each accepted page to
+     * {@code onAccepted} the moment it completes (completion order, caller's thread)
+     */
+    public List<ContentData> fetchUntilQuorum(List<String> urls, int target, Consumer<ContentData> onAccepted) {
+        return fetchUntilQuorum(new ListSource(urls), target, onAccepted);
+    }
+
+    /**
+     * Same as {@link #fetchUntilQuorum(List, int, Consumer)}, for results still arriving
+     * from a running search. The window fills as results are published, so fetching starts
+     * with the first search page; the stream is closed once the quorum is reached.
+     */
+    public List<ContentData> fetchUntilQuorum(SearchResultStream results, int target, Consumer<ContentData> onAccepted) {
+        return fetchUntilQuorum(new StreamSource(results), target, onAccepted);
+    }
+
+    private List<ContentData> fetchUntilQuorum(UrlSource source, int target, Consumer<ContentData> onAccepted) {
+        if (target <= 0) {
+            source.close();
+            return List.of();
+        }
+
+        List<String> candidates = new ArrayList<>(); // Rank order
+        Set<String> seen = new HashSet<>(); // Canonical URLs
+        BlockingQueue<Future<ContentData>> events = new LinkedBlockingQueue<>();
+        Map<Future<ContentData>, Integer> inFlight = new HashMap<>();
+        Map<Integer, ContentData> accepted = new TreeMap<>();
+        NearDuplicateFilter duplicateFilter = new NearDuplicateFilter(dedupMaxDistance);
+        source.onAvailable(() -> events.add(MORE_URLS));
+
+        int window = target * 2; // Grows by one for every page that does not count
+        int submitted = 0;
+        try {
+            while (accepted.size() < target) {
+                // Take the URLs available so far while the window has room, spread across hosts
+                int batchStart = candidates.size();
+                String next;
+                while (submitted + candidates.size() - batchStart < window && (next = source.next()) != null) {
+                    if (seen.add(UrlCanonicalizer.canonicalize(next))) {
+                        candidates.add(next);
+                    }
+                }
+                if (candidates.size() > batchStart) {
+                    Map<String, Integer> rankByUrl = new HashMap<>();
+                    for (int i = batchStart; i < candidates.size(); i++) {
+                        rankByUrl.put(candidates.get(i), i);
+                    }
+                    for (String url : HostScheduler.interleaveByHost(candidates.subList(batchStart, candidates.size()))) {
+                        PageFetch fetch = startFetch(url);
+                        inFlight.put(fetch, rankByUrl.get(url));
+                        fetch.whenComplete((content, failure) -> events.add(fetch));
+                        submitted++;
+                    }
+                }
+
+                if (inFlight.isEmpty() && source.isExhausted()) {
+                    break;
+                }
+                Future<ContentData> completed = events.take();
+                if (completed == MORE_URLS) {
+                    continue;
+                }
+                int rank = inFlight.remove(completed);
+                ContentData content = resultOf(completed, candidates.get(rank));
+
+                if (isAcceptable(content, candidates.get(rank), duplicateFilter)) {
+                    accepted.put(rank, content);
+                    onAccepted.accept(content);
+                } else {
+                    window++; // Top up so the window stays full until the quorum is reached
+                }
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            logger.warn("Quorum fetch interrupted with {}/{} pages", accepted.size(), target);
+        } finally {
+            // Quorum reached (or caller gone) - stop the stragglers
+            inFlight.keySet().forEach(future -> future.cancel(true));
+            source.close();
+        }
+
+        logger.info("ContentFetcherTool: Quorum fetch got {}/{} pages from {} of {} URLs, cancelled {} in flight",
+                accepted.size(), target, submitted, candidates.size() + source.remaining(), inFlight.size());
+        return new ArrayList<>(accepted.values());
+    }
+
+    /**
+     * URLs to fetch, in rank order; a streamed source may get more while fetching
+     */
+    private interface UrlSource {
+        /**
+         * Next URL available now, or null
+         */
+        String next();
+
+        /**
+         * True when no URL is available and none will be
+         */
+        boolean isExhausted();
+
+        /**
+         * Run {@code wakeUp} whenever more URLs may be available (must not block)
+         */
+        void onAvailable(Runnable wakeUp);
+
+        /**
+         * URLs known but not taken, for logging
+         */
+        int remaining();
+
+        void close();
+    }
+
+    private static class ListSource implements UrlSource {
+        private final List<String> urls;
+        private int next;
+
+        ListSource(List<String> urls) {
+            this.urls = urls;
+        }
+
+        @Override
+        public String next() {
+            return next < urls.size() ? urls.get(next++) : null;
+        }
+
+        @Override
+        public boolean isExhausted() {
+            return next >= urls.size();
+        }
+
+        @Override
+        public void onAvailable(Runnable wakeUp) {
+        }
+
+        @Override
+        public int remaining() {
+            return urls.size() - next;
+        }
+
+        @Override
+        public void close() {
+        }
+    }
+
+    private static class StreamSource implements UrlSource {
+        private final SearchResultStream results;
+
+        StreamSource(SearchResultStream results) {
+            this.results = results;
+        }
+
+        @Override
+        public String next() {
+            SearxngResult result;
+            while ((result = results.poll()) != null) {
+                if (result.url() != null && !result.url().isBlank()) {
+                    return result.url();
+                }
             }
-        }, executorService).exceptionally(throwable -> {
-            logger.warn("Async fetch failed for {}: {}", url, throwable.getMessage());
             return null;
-        });
+        }
+
+        @Override
+        public boolean isExhausted() {
+            return results.isExhausted();
+        }
+
+        @Override
+        public void onAvailable(Runnable wakeUp) {
+            results.onAvailable(wakeUp);
+        }
+
+        @Override
+        public int remaining() {
+            return 0; // Dropped on close
+        }
+
+        @Override
+        public void close() {
+            results.close();
+        }
     }
 
-    private CompletableFuture<String> fetchContentAsync(String url) {
-        return CompletableFuture.supplyAsync(() -> {
-            try {
-                return fetchContent(url);
-            } catch (Exception e) {
-                logger.warn("Failed to fetch content from {}: {}", url, e.getMessage());
-                throw new CompletionException(e);
+    private boolean isAcceptable(ContentData content, String url, NearDuplicateFilter duplicateFilter) {
+        if (content == null || content.totalCharacters() < MIN_CONTENT_CHARACTERS) {
+            logger.debug("Skipping low-quality content ({} chars) from URL: {}",
+                    content != null ? content.totalCharacters() : 0, url);
+            return false;
+        }
+        if (dedupMaxDistance >= 0) {
+            String original = duplicateFilter.duplicateOf(content);
+            if (original != null) {
+                duplicates.increment();
+                logger.info("Skipping {} - near-duplicate of {}", url, original);
+                return false;
             }
-        }, executorService).exceptionally(throwable -> {
+        }
+        return true;
+    }
+
+    private ContentData resultOf(Future<ContentData> completed, String url) {
+        try {
+            return completed.get();
+        } catch (ExecutionException e) {
+            logger.warn("Async fetch failed for {}: {}", url, e.getCause().getMessage());
+        } catch (InterruptedException | CancellationException e) {
+            // Only the caller's own cancellation lands here - treat as a failed fetch
+        }
+        return null;
+    }
+
+    private CompletableFuture<ContentData> fetchStructuredContentAsync(String url) {
+        return startFetch(url).exceptionally(throwable -> {
             logger.warn("Async fetch failed for {}: {}", url, throwable.getMessage());
             return null;
         });
     }
 
+    private CompletableFuture<String> fetchContentAsync(String url) {
+        return fetchStructuredContentAsync(url).thenApply(content -> content != null
+                ? com.ninickname.summarizer.formatter.StructuredContentFormatter.toFormattedString(content)
+                : null);
+    }
+
     /**
      * Check if URL should be skipped due to known limitations
      */
@@ -153,71 +528,298 @@ public class ContentFetcherTool {
         return false;
     }
 
-    private ContentData fetchStructuredContent(String url) throws IOException, InterruptedException {
-        // Skip unreliable or unsupported sites
-        if (shouldSkipUrl(url)) {
-            logger.warn("Skipping unsupported/unreliable URL: {}", url);
-            return null;
+    private PageFetch startFetch(String url) {
+        PageFetch fetch = new PageFetch(url);
+        fetch.runStep(fetch::check, null);
+        return fetch;
+    }
+
+    /**
+     * One page fetch, in two steps on the fetch executor: the checks that need no network,
+     * then - once the host scheduler grants a slot - the request and extraction. No executor
+     * thread is held while the page waits for its host. Cancelling the fetch gives up its
+     * place in the host queue or interrupts the running step.
+     */
+    private final class PageFetch extends CompletableFuture<ContentData> {
+        private final String url;
+        private final long fetchStart = System.nanoTime();
+        private Future<?> step; // guarded by this
+
+        // Set by check() for send()
+        private String fetchUrl;
+        private String host;
+        private CachedContent cached;
+        private final Map<String, String> headers = new LinkedHashMap<>();
+
+        private PageFetch(String url) {
+            this.url = url;
         }
 
-        // Rewrite Reddit URLs to use old.reddit.com for full HTML content
-        String fetchUrl = url;
-        if (url.contains("reddit.com") && !url.contains("old.reddit.com")) {
-            fetchUrl = url.replace("www.reddit.com", "old.reddit.com")
-                          .replace("reddit.com", "old.reddit.com");
-            logger.debug("Rewritten Reddit URL: {} -> {}", url, fetchUrl);
+        @Override
+        public boolean cancel(boolean mayInterruptIfRunning) {
+            boolean cancelled = super.cancel(mayInterruptIfRunning);
+            Future<?> current;
+            synchronized (this) {
+                current = step;
+            }
+            if (current != null) {
+                current.cancel(mayInterruptIfRunning);
+            }
+            return cancelled;
         }
 
-        logger.debug("Fetching structured content from: {}", fetchUrl);
+        /**
+         * Run a step on the fetch executor; {@code permit} (if any) is released when it ends
+         */
+        private void runStep(Runnable body, HostScheduler.Permit permit) {
+            FutureTask<Void> task = new FutureTask<>(() -> {
+                try {
+                    body.run();
+                } catch (RuntimeException | Error e) {
+                    completeExceptionally(e);
+                }
+            }, null) {
+                @Override
+                protected void done() {
+                    if (permit != null) {
+                        permit.close();
+                    }
+                }
+            };
+            track(task);
+            try {
+                fetchExecutor.execute(task);
+            } catch (RejectedExecutionException e) {
+                task.cancel(false);
+                completeExceptionally(e);
+            }
+        }
 
-        HttpRequest request = HttpRequest.newBuilder()
-                .uri(URI.create(fetchUrl))
-                .header("User-Agent", "Mozilla/5.0 (Windows NT 10.0; Win64; x64) AppleWebKit/537.36 (KHTML, like Gecko) Chrome/120.0.0.0 Safari/537.36")
-                .header("Accept", "text/html,application/xhtml+xml,application/xml;q=0.9,*/*;q=0.8")
-                .header("Accept-Language", "en-US,en;q=0.9")
-                .timeout(TIMEOUT)
-                .GET()
-                .build();
+        private void track(Future<?> next) {
+            synchronized (this) {
+                step = next;
+            }
+            if (isCancelled()) {
+                next.cancel(true);
+            }
+        }
 
-        try {
-            HttpResponse<String> response = httpClient.send(request, HttpResponse.BodyHandlers.ofString());
+        /**
+         * Skip list, caches and quarantine, then queue for the host
+         */
+        private void check() {
+            // Skip unreliable or unsupported sites
+            if (shouldSkipUrl(url)) {
+                logger.warn("Skipping unsupported/unreliable URL: {}", url);
+                complete(null);
+                return;
+            }
+
+            // Fresh cache hits skip the network and Jsoup entirely
+            cached = contentCache.lookup(url);
+            if (cached != null && contentCache.isFresh(cached)) {
+                logger.debug("Content cache hit for {}", url);
+                complete(cached.content());
+                return;
+            }
+
+            // Failed recently - do not spend a fetch slot on it again
+            if (negativeCache.contains(url)) {
+                negativeCacheSkips.increment();
+                logger.debug("Skipping recently failed URL: {}", url);
+                complete(null);
+                return;
+            }
+
+            // Where this URL ended up last time (rewrites and redirects included) - skip the hops
+            fetchUrl = redirectMemo.resolve(url);
+            if (fetchUrl != null) {
+                logger.debug("Remembered target: {} -> {}", url, fetchUrl);
+            } else {
+                fetchUrl = url;
+                // Rewrite Reddit URLs to use old.reddit.com for full HTML content
+                if (url.contains("reddit.com") && !url.contains("old.reddit.com")) {
+                    fetchUrl = url.replace("www.reddit.com", "old.reddit.com")
+                                  .replace("reddit.com", "old.reddit.com");
+                    logger.debug("Rewritten Reddit URL: {} -> {}", url, fetchUrl);
+                }
+            }
+
+            host = HostScheduler.hostOf(fetchUrl);
+            if (!hostQuarantine.allow(host)) {
+                quarantineSkips.increment();
+                if (cached != null) {
+                    logger.debug("Host {} quarantined, serving stale cached content for {}", host, url);
+                    complete(cached.content());
+                    return;
+                }
+                logger.debug("Skipping URL on quarantined host: {}", url);
+                complete(null);
+                return;
+            }
+
+            headers.put("User-Agent", "Mozilla/5.0 (Windows NT 10.0; Win64; x64) AppleWebKit/537.36 (KHTML, like Gecko) Chrome/120.0.0.0 Safari/537.36");
+            headers.put("Accept", "text/html,application/xhtml+xml,application/xml;q=0.9,*/*;q=0.8");
+            headers.put("Accept-Language", "en-US,en;q=0.9");
+            headers.put("Accept-Encoding", "gzip, deflate");
+
+            // Servers that honor Range stop sending at the budget themselves (206 Partial Content)
+            if (rangeRequests) {
+                headers.put("Range", "bytes=0-" + (maxBodyBytes - 1));
+            }
+
+            // Stale entry with validators - a 304 costs one round trip and no body or parse
+            if (cached != null) {
+                if (cached.etag() != null) {
+                    headers.put("If-None-Match", cached.etag());
+                }
+                if (cached.lastModified() != null) {
+                    headers.put("If-Modified-Since", cached.lastModified());
+                }
+            }
+
+            // Off the executor until the host has a slot for it
+            CompletableFuture<HostScheduler.Permit> hostSlot = hostScheduler.acquire(fetchUrl);
+            track(hostSlot);
+            hostSlot.thenAccept(permit -> runStep(() -> send(permit), permit));
+        }
+
+        private void send(HostScheduler.Permit permit) {
+            logger.debug("Fetching structured content from: {}", fetchUrl);
+            try {
+                FetchResponse response;
+                try (permit) {
+                    // Timeout from this host's latency history, within what the host wait left of the budget
+                    Duration remaining = fetchBudget.minusNanos(System.nanoTime() - fetchStart);
+                    Duration timeout = latencyTracker.timeoutFor(permit.getHost(), remaining);
+                    if (timeout.isZero()) {
+                        logger.warn("Fetch budget of {} spent waiting for host {}: {}", fetchBudget, permit.getHost(), url);
+                        complete(null);
+                        return;
+                    }
+
+                    long sendStart = System.nanoTime();
+                    try {
+                        response = transport.get(URI.create(fetchUrl), headers, timeout);
+                    } catch (FetchTimeoutException e) {
+                        latencyTracker.recordTimeout(permit.getHost(), timeout);
+                        logger.warn("Timed out after {}ms: {}", timeout.toMillis(), url);
+                        complete(failed(url, host));
+                        return;
+                    }
+                    // Whole exchange, body included - the span the transport applies the timeout to
+                    latencyTracker.record(permit.getHost(), Duration.ofNanos(System.nanoTime() - sendStart));
+                }
+                complete(extract(response));
+            } catch (InterruptedException e) {
+                // Cancelled by a quorum fetch that already has enough pages
+                Thread.currentThread().interrupt();
+                logger.debug("Fetch cancelled for {}", url);
+                complete(null);
+            } catch (Exception e) {
+                logger.warn("Failed to fetch {}: {}", url, e.getMessage());
+                complete(failed(url, host));
+            }
+        }
+
+        private ContentData extract(FetchResponse response) throws IOException {
+            redirectMemo.remember(url, response.uri().toString());
+
+            if (response.statusCode() == 304 && cached != null) {
+                logger.debug("Content not modified, reusing cached extraction for {}", url);
+                hostQuarantine.recordSuccess(host);
+                return contentCache.notModified(url, cached);
+            }
 
             if (response.statusCode() >= 400) {
                 logger.warn("HTTP error {} for URL: {}", response.statusCode(), url);
-                return null;
+                return failed(url, host);
             }
 
-            String html = response.body();
-            if (html == null || html.isEmpty()) {
+            CappedBody body = response.body();
+            if (body != null && body.isRejected()) {
+                rejections.get(body.rejectReason()).increment();
+                logger.info("Rejected {} before download: {} ({})", url, body.rejectReason(), body.rejectDetail());
+                negativeCache.put(url); // A property of the URL, not of the host
                 return null;
             }
+            if (body == null || body.isEmpty()) {
+                return failed(url, host);
+            }
+            if (body.truncated()) {
+                logger.debug("Body of {} truncated at {} bytes", url, body.bytes().length);
+            }
 
-            return extractStructuredContent(html, url);
-        } catch (Exception e) {
-            logger.warn("Failed to fetch {}: {}", url, e.getMessage());
-            return null;
+            // Decode once, straight from bytes: BOM, then header charset, then <meta> sniffing
+            Document doc = Jsoup.parse(new ByteArrayInputStream(body.bytes()), headerCharsetOf(response), url);
+            ContentData content = extractStructuredContent(doc, url);
+            if (content == null || content.totalCharacters() < MIN_CONTENT_CHARACTERS) {
+                return failed(url, host);
+            }
+            // Only pages that pass are cached - a cached hit would outlive the negative cache entry
+            if (!content.sections().isEmpty()) {
+                contentCache.put(url, content,
+                        response.header("ETag").orElse(null),
+                        response.header("Last-Modified").orElse(null));
+            }
+            hostQuarantine.recordSuccess(host);
+            return content;
         }
     }
 
-    private String fetchContent(String url) throws IOException, InterruptedException {
-        ContentData content = fetchStructuredContent(url);
-        return content != null ? com.ninickname.summarizer.formatter.StructuredContentFormatter.toFormattedString(content) : null;
+    /**
+     * Remember a failed fetch for the negative cache and the host's quarantine window
+     */
+    private ContentData failed(String url, String host) {
+        redirectMemo.forget(url); // The target may have moved again
+        negativeCache.put(url);
+        hostQuarantine.recordFailure(host);
+        return null;
+    }
+
+    /**
+     * Charset declared in the Content-Type header, or null (absent or unsupported)
+     * to let Jsoup sniff the BOM and {@code <meta>} charset, defaulting to UTF-8
+     */
+    private String headerCharsetOf(FetchResponse response) {
+        String contentType = response.header("Content-Type").orElse("");
+        for (String parameter : contentType.split(";")) {
+            String trimmed = parameter.trim();
+            if (trimmed.regionMatches(true, 0, "charset=", 0, 8)) {
+                String name = trimmed.substring(8).replace("\"", "").replace("'", "").trim();
+                try {
+                    if (Charset.isSupported(name)) {
+                        return name;
+                    }
+                } catch (IllegalArgumentException e) {
+                    // Illegal name - same as unsupported
+                }
+                logger.debug("Unsupported charset '{}', sniffing the document instead", name);
+            }
+        }
+        return null;
     }
 
     private ContentData extractStructuredContent(String html, String url) {
+        return extractStructuredContent(Jsoup.parse(html, url), url);
+    }
+
+    // Package-private, like the converters below, for ExtractionBenchmark
+    ContentData extractStructuredContent(Document doc, String url) {
         try {
-            Document doc = Jsoup.parse(html);
+            // One traversal collects h1, noise, main-content candidates and headings
+            PageStructure structure = PageStructure.scan(doc);
 
             // Extract metadata using helper methods
             String title = extractTitle(doc);
-            String mainHeading = extractMainHeading(doc);
-            Element mainElement = findMainContent(doc);
+            String mainHeading = structure.removeMainHeading();
+            Element mainElement = structure.findMainContent();
 
             // Extract sections - try h2 first, then h3 (for Medium and similar sites)
             // First try within mainElement, but if no headings found, search entire body
             // (some sites have content spread across multiple divs)
-            Elements h2Headings = mainElement.select("h2");
-            Elements h3Headings = mainElement.select("h3");
+            Elements h2Headings = new Elements(structure.h2Within(mainElement));
+            Elements h3Headings = new Elements(structure.h3Within(mainElement));
 
             logger.trace("Found {} h2 and {} h3 headings in mainElement for {}",
                     h2Headings.size(), h3Headings.size(), url);
@@ -229,8 +831,8 @@ public class ContentFetcherTool {
             if (h2Headings.isEmpty() && h3Headings.isEmpty()) {
                 Element body = doc.body();
                 if (body != null) {
-                    h2Headings = body.select("h2");
-                    h3Headings = body.select("h3");
+                    h2Headings = new Elements(structure.h2Within(body));
+                    h3Headings = new Elements(structure.h3Within(body));
                     // If we found headings in body, use body as mainElement
                     if (!h2Headings.isEmpty() || !h3Headings.isEmpty()) {
                         logger.trace("No headings in mainElement, using body instead (found {} h2, {} h3)",
@@ -310,7 +912,7 @@ public class ContentFetcherTool {
         }
     }
 
-    private String elementToMarkdown(Element element) {
+    String elementToMarkdown(Element element) {
         if (element == null) return "";
 
         String tag = element.tagName();
@@ -490,7 +1092,7 @@ public class ContentFetcherTool {
         return result.toString().trim();
     }
 
-    private String tableToMarkdown(Element table) {
+    String tableToMarkdown(Element table) {
         StringBuilder md = new StringBuilder();
 
         Elements rows = table.select("tr");
@@ -568,7 +1170,7 @@ public class ContentFetcherTool {
         return cleaned.toString().trim();
     }
 
-    private String stripJunkFromEnds(String text) {
+    String stripJunkFromEnds(String text) {
         if (text == null || text.isEmpty()) {
             return text;
         }
@@ -669,9 +1271,14 @@ public class ContentFetcherTool {
             }
         }
 
+        // Document-order index over body, shared by all sections of a nested layout
+        Document ownerDocument = mainElement.ownerDocument();
+        Element body = ownerDocument != null ? ownerDocument.body() : null;
+        Supplier<DocumentOrderIndex> orderIndex = DocumentOrderIndex.lazy(body != null ? body : mainElement);
+
         // Now extract regular sections from headings
         for (Element heading : headings) {
-            ContentData.SectionData section = extractSingleSection(heading);
+            ContentData.SectionData section = extractSingleSection(heading, orderIndex);
 
             // Calculate total section chars (content + subsections)
             int sectionContentChars = section.content() != null ? section.content().length() : 0;
@@ -689,7 +1296,7 @@ public class ContentFetcherTool {
         return sections;
     }
 
-    private ContentData.SectionData extractSingleSection(Element h2) {
+    private ContentData.SectionData extractSingleSection(Element h2, Supplier<DocumentOrderIndex> orderIndex) {
         String heading = h2.text();
 
         // For pages with complex nesting (like Elementor), try nextElementSibling first
@@ -709,7 +1316,7 @@ public class ContentFetcherTool {
 
         if (!hasSiblings) {
             // No siblings - this is a nested layout, use alternative extraction
-            return extractSectionByTextPosition(h2);
+            return extractSectionByTextPosition(h2, orderIndex);
         }
 
         // Standard sibling-based extraction
@@ -765,49 +1372,15 @@ public class ContentFetcherTool {
      * Alternative extraction for heavily nested layouts (like Elementor)
      * Extracts all paragraphs/content between current h2 and next h2 in document order
      */
-    private ContentData.SectionData extractSectionByTextPosition(Element h2) {
+    private ContentData.SectionData extractSectionByTextPosition(Element h2, Supplier<DocumentOrderIndex> orderIndex) {
         String heading = h2.text();
-        Element parent = h2.parent();
-        while (parent != null && !parent.tagName().equals("body")) {
-            parent = parent.parent();
-        }
-
-        if (parent == null) {
-            return new ContentData.SectionData(heading, "", List.of());
-        }
 
-        // Get all h2s and all paragraphs/content elements
-        Elements allH2s = parent.select("h2");
-        Elements allContent = parent.select("p, ul, ol, blockquote, pre, table");
-
-        // Find index of current h2
-        int currentIndex = -1;
-        for (int i = 0; i < allH2s.size(); i++) {
-            if (allH2s.get(i).equals(h2)) {
-                currentIndex = i;
-                break;
-            }
-        }
-
-        if (currentIndex == -1) {
-            return new ContentData.SectionData(heading, "", List.of());
-        }
-
-        // Determine next h2 (if exists)
-        Element nextH2 = currentIndex + 1 < allH2s.size() ? allH2s.get(currentIndex + 1) : null;
-
-        // Collect all content between current h2 and next h2
+        // Collect all content between current h2 and next h2 (empty if h2 is not under body)
         StringBuilder sectionContent = new StringBuilder();
-        for (Element content : allContent) {
-            // Check if this content comes after current h2
-            if (isAfter(content, h2, parent)) {
-                // Check if it comes before next h2 (or no next h2)
-                if (nextH2 == null || isBefore(content, nextH2, parent)) {
-                    String markdown = elementToMarkdown(content);
-                    if (!markdown.isEmpty()) {
-                        sectionContent.append(markdown).append("\n\n");
-                    }
-                }
+        for (Element content : orderIndex.get().contentAfterHeading(h2)) {
+            String markdown = elementToMarkdown(content);
+            if (!markdown.isEmpty()) {
+                sectionContent.append(markdown).append("\n\n");
             }
         }
 
@@ -819,23 +1392,6 @@ public class ContentFetcherTool {
         return new ContentData.SectionData(heading, contentText, List.of());
     }
 
-    /**
-     * Check if element1 appears before element2 in document order
-     */
-    private boolean isBefore(Element element1, Element element2, Element root) {
-        String html = root.html();
-        int pos1 = html.indexOf(element1.outerHtml());
-        int pos2 = html.indexOf(element2.outerHtml());
-        return pos1 < pos2 && pos1 != -1 && pos2 != -1;
-    }
-
-    /**
-     * Check if element1 appears after element2 in document order
-     */
-    private boolean isAfter(Element element1, Element element2, Element root) {
-        return isBefore(element2, element1, root);
-    }
-
     private ContentData.SubSectionData createSubSection(String heading, String content) {
         String trimmedContent = content.trim();
         if (trimmedContent.length() > MAX_SECTION_LENGTH) {
@@ -873,87 +1429,11 @@ public class ContentFetcherTool {
         return title != null && !title.isEmpty() ? title : "Untitled";
     }
 
-    private String extractMainHeading(Document doc) {
-        Element h1 = doc.selectFirst("h1");
-        if (h1 != null) {
-            String heading = h1.text();
-            h1.remove(); // Remove to avoid duplication
-            return heading;
-        }
-        return null;
-    }
-
-    private Element findMainContent(Document doc) {
-        // Remove noise elements FIRST
-        doc.select("script, style, nav, footer, aside, " +
-                ".header:not(.article-header), .footer, .navigation, .nav, .menu, " +
-                ".sidebar, .advertisement, .ad, .ads, " +
-                ".social-share, .share, " +
-                ".cookie-banner, .cookie-notice, " +
-                ".popup, .modal, .overlay, " +
-                ".breadcrumb, .related, .recommended, " +
-                ".dropdown-title, .dropdown-item").remove();
-
-        // Wikipedia-specific cleanup
-        doc.select(".navbox, .vertical-navbox, .sistersitebox, " +
-                ".metadata, .ambox, .mbox-small, " +
-                ".infobox, .toc, #toc, " +
-                ".reflist, .reference, .mw-editsection, " +
-                ".noprint, .catlinks, .printfooter, " +
-                "#mw-navigation, #mw-indicator-pp-default, " +
-                ".hatnote, .dablink").remove();
-
-        // Try multiple selectors in priority order
-        Element mainElement = null;
-
-        // Wikipedia-specific selector
-        if (doc.location().contains("wikipedia.org")) {
-            mainElement = doc.selectFirst(".mw-parser-output");
-            if (mainElement != null) {
-                // Remove Wikipedia-specific junk from the beginning
-                mainElement.select(".mw-empty-elt, .bandeau-portail, .box, " +
-                        ".messagebox, .thumb, .tright, .thumbinner").remove();
-            }
-        }
-
-        // Try semantic HTML first
-        if (mainElement == null) {
-            mainElement = doc.select("article, main, [role=main]").first();
-        }
-
-        // Try common class patterns
-        if (mainElement == null) {
-            mainElement = doc.select(".post-content, .entry-content, .article-content, .article-body, .article-wrapper").first();
-        }
-
-        // Try finding the largest content block (heuristic for main content)
-        if (mainElement == null) {
-            Elements candidates = doc.select("div.text, div[class*='content'], div[class*='post'], div[class*='article']");
-            int maxLength = 0;
-            for (Element candidate : candidates) {
-                int textLength = candidate.text().length();
-                if (textLength > maxLength) {
-                    maxLength = textLength;
-                    mainElement = candidate;
-                }
-            }
-        }
-
-        // Fallback to body
-        if (mainElement == null) {
-            mainElement = doc.body();
-        }
-
-        // Remove metadata/footer elements from selected content
-        mainElement.select(".article-meta, .author-info, .tag-container, " +
-                ".improve, .article-tags, header").remove();
-
-        return mainElement;
-    }
-
     public void shutdown() {
         try {
-            executorService.shutdown();
+            fetchExecutor.shutdown();
+            hostScheduler.shutdown();
+            transport.close();
         } catch (Exception e) {
             logger.warn("Error shutting down ContentFetcherTool: {}", e.getMessage());
         }
@@ -0,0 +1,108 @@
+package com.ninickname.summarizer.tool;
+
+import org.jsoup.nodes.Element;
+import org.jsoup.select.NodeTraversor;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Supplier;
+
+/**
+ * Document-order index over a parsed page, built in a single pre-order pass.
+ *
+ * Every element gets a pre-order ordinal, so document-order checks cost O(1).
+ * h2 headings and content blocks (p, ul, ol, blockquote, pre, table) are kept in
+ * document order, so the content between two headings is found with a binary
+ * search and slicing all sections is one linear sweep over the content blocks.
+ */
+class DocumentOrderIndex {
+    private final Map<Element, Integer> ordinals = new IdentityHashMap<>();
+    private final Map<Element, Integer> headingPositions = new IdentityHashMap<>();
+    private final List<Element> headings = new ArrayList<>();
+    private final List<Element> contents = new ArrayList<>();
+    private final int[] contentOrdinals;
+
+    DocumentOrderIndex(Element root) {
+        NodeTraversor.traverse((node, depth) -> {
+            if (!(node instanceof Element element)) {
+                return;
+            }
+            int ordinal = ordinals.size();
+            ordinals.put(element, ordinal);
+
+            switch (element.normalName()) {
+                case "h2" -> {
+                    headingPositions.put(element, headings.size());
+                    headings.add(element);
+                }
+                case "p", "ul", "ol", "blockquote", "pre", "table" -> contents.add(element);
+                default -> {
+                }
+            }
+        }, root);
+
+        contentOrdinals = new int[contents.size()];
+        for (int i = 0; i < contents.size(); i++) {
+            contentOrdinals[i] = ordinals.get(contents.get(i));
+        }
+    }
+
+    /**
+     * Build the index on first use only - most pages never need document-order lookups
+     */
+    static Supplier<DocumentOrderIndex> lazy(Element root) {
+        return new Supplier<>() {
+            private DocumentOrderIndex index;
+
+            @Override
+            public DocumentOrderIndex get() {
+                if (index == null) {
+                    index = new DocumentOrderIndex(root);
+                }
+                return index;
+            }
+        };
+    }
+
+    /**
+     * Content blocks after the given h2 and before the next h2, in document order
+     */
+    List<Element> contentAfterHeading(Element h2) {
+        Integer position = headingPositions.get(h2);
+        if (position == null) {
+            return List.of();
+        }
+
+        int start = ordinals.get(h2);
+        int end = position + 1 < headings.size()
+                ? ordinals.get(headings.get(position + 1))
+                : Integer.MAX_VALUE;
+
+        int from = firstContentAfter(start);
+        int to = from;
+        while (to < contentOrdinals.length && contentOrdinals[to] < end) {
+            to++;
+        }
+        return from == to ? List.of() : Collections.unmodifiableList(contents.subList(from, to));
+    }
+
+    /**
+     * Index of the first content block whose ordinal is greater than the given one
+     */
+    private int firstContentAfter(int ordinal) {
+        int low = 0;
+        int high = contentOrdinals.length;
+        while (low < high) {
+            int mid = (low + high) >>> 1;
+            if (contentOrdinals[mid] <= ordinal) {
+                low = mid + 1;
+            } else {
+                high = mid;
+            }
+        }
+        return low;
+    }
+}
@@ -0,0 +1,146 @@
+package com.ninickname.summarizer.tool;
+
+import com.ninickname.summarizer.model.ContentData;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Recognizes pages whose text is a near-copy of one already accepted
+ * (syndicated articles, mirrors, print views) by 64-bit SimHash.
+ *
+ * The fingerprint is built from hashed word 3-shingles of the section and
+ * subsection text - titles and headings are left out since mirrors often
+ * rename them. Two pages are near-duplicates when their fingerprints differ in
+ * at most {@code maxDistance} bits. One pass over the text, with the per-bit
+ * votes kept as bit-sliced counters (a handful of word operations per shingle
+ * instead of 64 increments), so a 15k character page takes tens of microseconds.
+ *
+ * Not thread-safe: one instance per quorum fetch, used from the caller's thread.
+ */
+class NearDuplicateFilter {
+    private static final int SHINGLE_WORDS = 3;
+    private static final long FNV_OFFSET = 0xcbf29ce484222325L;
+    private static final long FNV_PRIME = 0x100000001b3L;
+
+    private final int maxDistance;
+    private final List<Long> fingerprints = new ArrayList<>();
+    private final List<String> urls = new ArrayList<>();
+
+    NearDuplicateFilter(int maxDistance) {
+        this.maxDistance = maxDistance;
+    }
+
+    /**
+     * URL of the accepted page this one duplicates, or null - the page is then
+     * remembered as accepted
+     */
+    String duplicateOf(ContentData content) {
+        long fingerprint = fingerprint(content);
+        for (int i = 0; i < fingerprints.size(); i++) {
+            if (Long.bitCount(fingerprints.get(i) ^ fingerprint) <= maxDistance) {
+                return urls.get(i);
+            }
+        }
+        fingerprints.add(fingerprint);
+        urls.add(content.url());
+        return null;
+    }
+
+    static long fingerprint(ContentData content) {
+        Shingler shingler = new Shingler();
+        for (ContentData.SectionData section : content.sections()) {
+            shingler.add(section.content());
+            if (section.subSections() != null) {
+                for (ContentData.SubSectionData subSection : section.subSections()) {
+                    shingler.add(subSection.content());
+                }
+            }
+        }
+        return shingler.fingerprint();
+    }
+
+    /**
+     * Streams words across all text blocks, voting each shingle's hash bits
+     */
+    private static class Shingler {
+        // Bit b of counts[k] is bit k of the number of shingles with hash bit b set
+        private final long[] counts = new long[Integer.SIZE];
+        private final long[] recent = new long[SHINGLE_WORDS]; // hashes of the last words, ring
+        private int words;
+        private int shingles;
+
+        void add(String text) {
+            if (text == null) {
+                return;
+            }
+            long hash = FNV_OFFSET;
+            boolean inWord = false;
+            for (int i = 0, length = text.length(); i < length; i++) {
+                char c = text.charAt(i);
+                if (Character.isLetterOrDigit(c)) {
+                    hash = (hash ^ Character.toLowerCase(c)) * FNV_PRIME;
+                    inWord = true;
+                } else if (inWord) {
+                    word(hash);
+                    hash = FNV_OFFSET;
+                    inWord = false;
+                }
+            }
+            if (inWord) {
+                word(hash);
+            }
+        }
+
+        long fingerprint() {
+            if (words > 0 && words < SHINGLE_WORDS) {
+                vote(shingle()); // Too short for a full shingle - use what there is
+            }
+            long fingerprint = 0;
+            for (int bit = 0; bit < 64; bit++) {
+                long ones = 0;
+                for (int k = 0; k < counts.length; k++) {
+                    ones |= ((counts[k] >>> bit) & 1) << k;
+                }
+                if (2 * ones > shingles) { // Set in the majority of shingles
+                    fingerprint |= 1L << bit;
+                }
+            }
+            return fingerprint;
+        }
+
+        private void word(long hash) {
+            recent[words % SHINGLE_WORDS] = hash;
+            words++;
+            if (words >= SHINGLE_WORDS) {
+                vote(shingle());
+            }
+        }
+
+        /**
+         * Order-sensitive combination of the last words, finished with the SplitMix64 mixer
+         */
+        private long shingle() {
+            long h = 0;
+            for (int i = Math.max(0, words - SHINGLE_WORDS); i < words; i++) {
+                h = h * 31 + recent[i % SHINGLE_WORDS];
+            }
+            h = (h ^ (h >>> 30)) * 0xbf58476d1ce4e5b9L;
+            h = (h ^ (h >>> 27)) * 0x94d049bb133111ebL;
+            return h ^ (h >>> 31);
+        }
+
+        /**
+         * Adds the hash to all 64 counters at once, ripple-carry style
+         */
+        private void vote(long hash) {
+            long carry = hash;
+            for (int k = 0; carry != 0; k++) {
+                long overflow = counts[k] & carry;
+                counts[k] ^= carry;
+                carry = overflow;
+            }
+            shingles++;
+        }
+    }
+}
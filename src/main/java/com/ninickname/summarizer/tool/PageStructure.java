@@ -0,0 +1,305 @@
+package com.ninickname.summarizer.tool;
+
+import org.jsoup.nodes.Document;
+import org.jsoup.nodes.Element;
+import org.jsoup.nodes.Node;
+import org.jsoup.select.NodeTraversor;
+import org.jsoup.select.NodeVisitor;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.Set;
+
+/**
+ * Everything extraction needs from a parsed page, collected in one pre-order pass.
+ *
+ * Instead of a full tree walk per selector (noise removal, Wikipedia cleanup,
+ * article/main lookup, candidate divs, h2/h3 on the main element and on the body),
+ * a single {@link NodeVisitor} records the first h1, the outermost noise elements,
+ * the main-content candidates of every priority and all h2/h3 headings. Noise
+ * subtrees are only searched for the h1 (it is taken before noise is removed).
+ *
+ * The predicates mirror the CSS selectors they replace, including jsoup's
+ * case-insensitive class and attribute matching.
+ */
+class PageStructure {
+
+    // script, style, nav, footer, aside, .header:not(.article-header), #toc, ...
+    private static final Set<String> NOISE_TAGS = Set.of("script", "style", "nav", "footer", "aside");
+    private static final Set<String> NOISE_CLASSES = Set.of(
+            "footer", "navigation", "nav", "menu",
+            "sidebar", "advertisement", "ad", "ads",
+            "social-share", "share",
+            "cookie-banner", "cookie-notice",
+            "popup", "modal", "overlay",
+            "breadcrumb", "related", "recommended",
+            "dropdown-title", "dropdown-item",
+            // Wikipedia
+            "navbox", "vertical-navbox", "sistersitebox",
+            "metadata", "ambox", "mbox-small",
+            "infobox", "toc",
+            "reflist", "reference", "mw-editsection",
+            "noprint", "catlinks", "printfooter",
+            "hatnote", "dablink");
+    private static final Set<String> NOISE_IDS = Set.of("toc", "mw-navigation", "mw-indicator-pp-default");
+
+    // Removed inside the Wikipedia .mw-parser-output main element only
+    private static final Set<String> WIKIPEDIA_MAIN_NOISE_CLASSES = Set.of(
+            "mw-empty-elt", "bandeau-portail", "box",
+            "messagebox", "thumb", "tright", "thumbinner");
+
+    // Removed inside whichever main element is chosen: .article-meta, ..., header
+    private static final Set<String> MAIN_NOISE_CLASSES = Set.of(
+            "article-meta", "author-info", "tag-container", "improve", "article-tags");
+
+    private static final Set<String> CONTENT_CLASSES = Set.of(
+            "post-content", "entry-content", "article-content", "article-body", "article-wrapper");
+
+    private final Document doc;
+    private final List<Element> noise = new ArrayList<>();
+    private final List<Element> wikipediaMainNoise = new ArrayList<>();
+    private final List<Element> mainNoise = new ArrayList<>();
+    private final List<Element> candidateDivs = new ArrayList<>();
+    private final List<Element> h2Headings = new ArrayList<>();
+    private final List<Element> h3Headings = new ArrayList<>();
+    private final List<Element> wikipediaMains = new ArrayList<>();
+    private final List<Element> semanticMains = new ArrayList<>();
+    private final List<Element> classMains = new ArrayList<>();
+    private Element firstH1;
+
+    private PageStructure(Document doc) {
+        this.doc = doc;
+    }
+
+    static PageStructure scan(Document doc) {
+        PageStructure structure = new PageStructure(doc);
+        NodeTraversor.traverse(structure.new Visitor(), doc);
+        return structure;
+    }
+
+    /**
+     * Remove the first h1 (to avoid duplicating it in the content) and return its text
+     */
+    String removeMainHeading() {
+        if (firstH1 == null) {
+            return null;
+        }
+        String heading = firstH1.text();
+        firstH1.remove();
+        return heading;
+    }
+
+    /**
+     * Remove noise and pick the main content element, in priority order:
+     * Wikipedia article body, semantic article/main, common content classes,
+     * the largest candidate div, then body.
+     */
+    Element findMainContent() {
+        noise.forEach(Element::remove);
+
+        Element mainElement = null;
+        if (doc.location().contains("wikipedia.org")) {
+            mainElement = firstAttached(wikipediaMains);
+            if (mainElement != null) {
+                removeWithin(wikipediaMainNoise, mainElement);
+            }
+        }
+        if (mainElement == null) {
+            mainElement = firstAttached(semanticMains);
+        }
+        if (mainElement == null) {
+            mainElement = firstAttached(classMains);
+        }
+        if (mainElement == null) {
+            int maxLength = 0;
+            for (Element candidate : within(candidateDivs, doc)) {
+                int textLength = candidate.text().length();
+                if (textLength > maxLength) {
+                    maxLength = textLength;
+                    mainElement = candidate;
+                }
+            }
+        }
+        if (mainElement == null) {
+            mainElement = doc.body();
+        }
+
+        removeWithin(mainNoise, mainElement);
+        return mainElement;
+    }
+
+    /**
+     * h2 headings inside the scope element, in document order
+     */
+    List<Element> h2Within(Element scope) {
+        return within(h2Headings, scope);
+    }
+
+    /**
+     * h3 headings inside the scope element, in document order
+     */
+    List<Element> h3Within(Element scope) {
+        return within(h3Headings, scope);
+    }
+
+    private static List<Element> within(List<Element> elements, Element scope) {
+        List<Element> result = new ArrayList<>();
+        for (Element element : elements) {
+            if (isSelfOrDescendant(element, scope)) {
+                result.add(element);
+            }
+        }
+        return result;
+    }
+
+    /**
+     * First element still in the document - candidates inside the removed h1 are gone
+     */
+    private Element firstAttached(List<Element> elements) {
+        for (Element element : elements) {
+            if (isSelfOrDescendant(element, doc)) {
+                return element;
+            }
+        }
+        return null;
+    }
+
+    private static void removeWithin(List<Element> elements, Element scope) {
+        for (Element element : elements) {
+            if (isSelfOrDescendant(element, scope)) {
+                element.remove();
+            }
+        }
+    }
+
+    /**
+     * Walks up the parent chain - elements removed above the scope no longer reach it
+     */
+    private static boolean isSelfOrDescendant(Element element, Element scope) {
+        for (Element current = element; current != null; current = current.parent()) {
+            if (current == scope) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private class Visitor implements NodeVisitor {
+        private Element noiseRoot; // outermost noise element being traversed, if any
+
+        @Override
+        public void head(Node node, int depth) {
+            if (!(node instanceof Element element)) {
+                return;
+            }
+            String tag = element.normalName();
+
+            if (firstH1 == null && tag.equals("h1")) {
+                firstH1 = element;
+            }
+            if (noiseRoot != null) {
+                return;
+            }
+
+            String classAttribute = element.className();
+            List<String> classes = classAttribute.isEmpty() ? List.of() : classesOf(classAttribute);
+
+            if (isNoise(element, tag, classes)) {
+                noiseRoot = element;
+                noise.add(element);
+                return;
+            }
+
+            for (String cls : classes) {
+                if (WIKIPEDIA_MAIN_NOISE_CLASSES.contains(cls)) {
+                    wikipediaMainNoise.add(element);
+                    break;
+                }
+            }
+            if (tag.equals("header") || containsAny(classes, MAIN_NOISE_CLASSES)) {
+                mainNoise.add(element);
+            }
+
+            switch (tag) {
+                case "h2" -> h2Headings.add(element);
+                case "h3" -> h3Headings.add(element);
+                case "article", "main" -> semanticMains.add(element);
+                case "div" -> {
+                    if (classes.contains("text") || containsCandidateWord(classAttribute)) {
+                        candidateDivs.add(element);
+                    }
+                }
+                default -> {
+                }
+            }
+
+            if (!tag.equals("article") && !tag.equals("main")
+                    && element.attr("role").trim().equalsIgnoreCase("main")) {
+                semanticMains.add(element);
+            }
+            if (classes.contains("mw-parser-output")) {
+                wikipediaMains.add(element);
+            }
+            if (containsAny(classes, CONTENT_CLASSES)) {
+                classMains.add(element);
+            }
+        }
+
+        @Override
+        public void tail(Node node, int depth) {
+            if (node == noiseRoot) {
+                noiseRoot = null;
+            }
+        }
+    }
+
+    private static boolean isNoise(Element element, String tag, List<String> classes) {
+        if (NOISE_TAGS.contains(tag) || containsAny(classes, NOISE_CLASSES)) {
+            return true;
+        }
+        if (classes.contains("header") && !classes.contains("article-header")) {
+            return true;
+        }
+        String id = element.id();
+        return !id.isEmpty() && NOISE_IDS.contains(id);
+    }
+
+    private static boolean containsAny(List<String> classes, Set<String> wanted) {
+        for (String cls : classes) {
+            if (wanted.contains(cls)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * div[class*='content'], div[class*='post'], div[class*='article'] (case-insensitive)
+     */
+    private static boolean containsCandidateWord(String classAttribute) {
+        String lower = classAttribute.toLowerCase(Locale.ROOT);
+        return lower.contains("content") || lower.contains("post") || lower.contains("article");
+    }
+
+    /**
+     * Lowercased class names of a class attribute, split on whitespace
+     */
+    private static List<String> classesOf(String classAttribute) {
+        List<String> classes = new ArrayList<>(4);
+        int length = classAttribute.length();
+        int start = -1;
+        for (int i = 0; i <= length; i++) {
+            boolean whitespace = i == length || Character.isWhitespace(classAttribute.charAt(i));
+            if (whitespace) {
+                if (start >= 0) {
+                    classes.add(classAttribute.substring(start, i).toLowerCase(Locale.ROOT));
+                    start = -1;
+                }
+            } else if (start < 0) {
+                start = i;
+            }
+        }
+        return classes;
+    }
+}
@@ -2,24 +2,35 @@ package com.ninickname.summarizer.tool;
 
 import com.fasterxml.jackson.databind.DeserializationFeature;
 import com.fasterxml.jackson.databind.ObjectMapper;
+import com.ninickname.summarizer.cache.SearchResultCache;
+import com.ninickname.summarizer.config.SearchProperties;
 import com.ninickname.summarizer.model.SearxngResponse;
 import com.ninickname.summarizer.model.SearxngResult;
+import com.ninickname.summarizer.tool.search.McpClientPool;
+import com.ninickname.summarizer.util.UrlCanonicalizer;
 import dev.langchain4j.agent.tool.Tool;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
 import io.modelcontextprotocol.client.McpClient;
-import io.modelcontextprotocol.client.McpSyncClient;
 import io.modelcontextprotocol.client.transport.HttpClientStreamableHttpTransport;
 import io.modelcontextprotocol.spec.McpSchema;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Component;
 
-import java.time.Duration;
 import java.util.*;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.function.Consumer;
 import java.util.stream.Collectors;
 
 @Component
-public class WebSearchTool {
+public class WebSearchTool implements AutoCloseable {
     private static final Logger logger = LoggerFactory.getLogger(WebSearchTool.class);
     private static final int MAX_PAGES = 25; // Maximum pagination attempts (to reach 100+ results)
     private static final int MAX_TOTAL_RESULTS = 100; // Hard limit on total results
@@ -35,132 +46,169 @@ public class WebSearchTool {
     );
 
     private final ObjectMapper objectMapper;
-    private final String mcpUrl;
+    private final McpClientPool mcpClients;
+    private final SearchResultCache resultCache;
+    private final ExecutorService pageExecutor;
+    private final int maxPagesInFlight;
+    private final Counter cancelledPages;
+
+    public WebSearchTool(String mcpUrl) {
+        this(mcpUrl, new SearchProperties(), new SimpleMeterRegistry());
+    }
 
-    public WebSearchTool(@Value("${mcp.web.url:http://localhost:9101}") String mcpUrl) {
-        this.mcpUrl = mcpUrl;
+    @Autowired
+    public WebSearchTool(@Value("${mcp.web.url:http://localhost:9101}") String mcpUrl,
+                         SearchProperties properties, MeterRegistry meterRegistry) {
         this.objectMapper = new ObjectMapper();
         objectMapper.configure(DeserializationFeature.FAIL_ON_UNKNOWN_PROPERTIES, false);
-        logger.info("WebSearchTool initialized with MCP URL: {}", mcpUrl);
+        SearchProperties.Mcp mcp = properties.getMcp();
+        this.mcpClients = new McpClientPool(
+                () -> McpClient.sync(HttpClientStreamableHttpTransport.builder(mcpUrl).build())
+                        .requestTimeout(mcp.getRequestTimeout())
+                        .build(),
+                mcp.getPoolSize(), mcp.getAcquireTimeout(), mcp.getKeepAliveInterval(), meterRegistry);
+        this.resultCache = new SearchResultCache(
+                properties.getCache().getTtl(), properties.getCache().getMaxEntries(), meterRegistry);
+
+        SearchProperties.Pagination pagination = properties.getPagination();
+        this.maxPagesInFlight = pagination.isSpeculative() ? Math.max(1, pagination.getMaxInFlight()) : 1;
+        this.pageExecutor = Executors.newCachedThreadPool(runnable -> {
+            Thread thread = new Thread(runnable, "search-page");
+            thread.setDaemon(true);
+            return thread;
+        });
+        this.cancelledPages = Counter.builder("search.pages.cancelled")
+                .description("Speculatively requested result pages cancelled once pagination stopped")
+                .register(meterRegistry);
+        logger.info("WebSearchTool initialized with MCP URL: {} ({} pooled sessions, up to {} pages in flight)",
+                mcpUrl, mcp.getPoolSize(), maxPagesInFlight);
     }
 
     @Tool("Search the web for information about a given topic with pagination support (up to 100 results)")
     public SearxngResponse search(String query, int userRequestedCount) {
+        return search(query, userRequestedCount, result -> { });
+    }
+
+    /**
+     * Same as {@link #search(String, int)}, also handing each new unique result to
+     * {@code onResult} as soon as its page is read (rank order, search thread)
+     */
+    public SearxngResponse search(String query, int userRequestedCount, Consumer<SearxngResult> onResult) {
         // Cap user request at maximum
         int targetResults = Math.min(userRequestedCount, MAX_TOTAL_RESULTS);
         logger.info("Searching for: '{}' (user wants {} sources, max: {})", query, targetResults, MAX_TOTAL_RESULTS);
 
-        List<SearxngResult> allResults = new ArrayList<>();
-        Set<String> seenUrls = new HashSet<>(); // Deduplicate by URL
-        int currentPage = 1;
-        int consecutiveEmptyPages = 0; // Track consecutive pages with no new results
-
-        HttpClientStreamableHttpTransport transport = HttpClientStreamableHttpTransport.builder(mcpUrl).build();
-        try (McpSyncClient client = McpClient
-                .sync(transport)
-                .requestTimeout(Duration.ofSeconds(10))
-                .build()) {
+        PageResults results = new PageResults(targetResults, onResult);
 
-            client.initialize();
-
-            // Keep fetching pages until we have enough results for user's request
-            while (allResults.size() < targetResults && currentPage <= MAX_PAGES) {
-                logger.info("Fetching page {} (current: {} valid results, target: {})", currentPage, allResults.size(), targetResults);
+        try {
+            if (maxPagesInFlight > 1) {
+                searchSpeculatively(query, results);
+            } else {
+                searchSequentially(query, results);
+            }
 
-                try {
-                    // Make MCP call with page number
-                    McpSchema.CallToolRequest toolRequest = McpSchema.CallToolRequest.builder()
-                            .name("web_search")
-                            .arguments(Map.of(
-                                    "query", query,
-                                    "page", currentPage
+            logger.info("Search completed: {} valid web pages from {} pages (requested: {})",
+                    results.all.size(), results.pagesRead, targetResults);
 
+            if (results.all.size() < targetResults) {
+                logger.warn("Only retrieved {} results out of {} requested. Pagination may have stopped early.",
+                        results.all.size(), targetResults);
+            }
 
-                            ))
-                            .build();
+            return new SearxngResponse(query, results.all, List.of());
 
-                    McpSchema.CallToolResult responseFromTool = client.callTool(toolRequest);
-                    String textualResponse = ((McpSchema.TextContent) responseFromTool.content().get(0)).text();
+        } catch (Exception e) {
+            logger.error("Web search failed for query '{}': {}", query, e.getMessage(), e);
+            throw new RuntimeException("Web search failed for query '" + query + "': " + e.getMessage(), e);
+        }
+    }
 
-                    SearxngResponse pageResponse = objectMapper.readValue(textualResponse, SearxngResponse.class);
-                    int pageResultCount = pageResponse.results().size();
+    /**
+     * Request pages one at a time until there are enough results
+     */
+    private void searchSequentially(String query, PageResults results) {
+        int currentPage = 1;
+        // Keep fetching pages until we have enough results for user's request
+        while (!results.isComplete() && currentPage <= MAX_PAGES) {
+            try {
+                if (!results.add(currentPage, fetchPage(query, currentPage))) {
+                    break;
+                }
+                currentPage++;
+            } catch (Exception e) {
+                if (e instanceof InterruptedException) {
+                    Thread.currentThread().interrupt();
+                }
+                logger.warn("Failed to fetch page {}: {}, stopping pagination", currentPage, e.getMessage());
+                break;
+            }
+        }
+    }
 
-                    logger.info("Page {} returned {} raw results", currentPage, pageResultCount);
+    /**
+     * Request page 1, then keep as many of the following pages in flight as its yield
+     * (valid results per page so far) says are still needed, up to maxPagesInFlight.
+     *
+     * Pages are still read in order, so dedupe and the stop conditions behave exactly as
+     * in sequential mode; pages still in flight when pagination stops are cancelled.
+     */
+    private void searchSpeculatively(String query, PageResults results) {
+        Deque<Future<SearxngResponse>> inFlight = new ArrayDeque<>();
+        int nextRequested = 1;
+        int currentPage = 1;
+        try {
+            while (!results.isComplete() && currentPage <= MAX_PAGES) {
+                int wanted = currentPage == 1 ? 1 : Math.min(maxPagesInFlight, results.pagesNeeded());
+                while (inFlight.size() < wanted && nextRequested <= MAX_PAGES) {
+                    int page = nextRequested++;
+                    inFlight.addLast(pageExecutor.submit(() -> fetchPage(query, page)));
+                }
 
-                    // If page returned no results, stop pagination
-                    if (pageResultCount == 0) {
-                        logger.info("Page {} returned 0 results, stopping pagination", currentPage);
+                try {
+                    if (!results.add(currentPage, inFlight.removeFirst().get())) {
                         break;
                     }
-
-                    // Filter and add unique, valid results
-                    int addedCount = 0;
-                    int skippedFiles = 0;
-                    int duplicates = 0;
-
-                    for (SearxngResult result : pageResponse.results()) {
-                        // Skip if no URL
-                        if (result.url() == null || result.url().trim().isEmpty()) {
-                            continue;
-                        }
-
-                        // Skip duplicate URLs
-                        if (seenUrls.contains(result.url())) {
-                            duplicates++;
-                            continue;
-                        }
-
-                        // Skip file URLs (PDFs, docs, etc.)
-                        if (isFileUrl(result.url())) {
-                            skippedFiles++;
-                            logger.debug("Skipping file URL: {}", result.url());
-                            continue;
-                        }
-
-                        // Add valid result
-                        seenUrls.add(result.url());
-                        allResults.add(result);
-                        addedCount++;
-                    }
-
-                    logger.info("Page {}: added {} valid results (skipped {} files, {} duplicates) - total: {}",
-                            currentPage, addedCount, skippedFiles, duplicates, allResults.size());
-
-                    // Track consecutive empty pages
-                    if (addedCount == 0) {
-                        consecutiveEmptyPages++;
-                        logger.info("Page {} added 0 valid results (consecutive empty: {})", currentPage, consecutiveEmptyPages);
-                        // Only stop if we've had several consecutive pages with no new results
-                        if (consecutiveEmptyPages >= CONSECUTIVE_EMPTY_THRESHOLD) {
-                            logger.info("Stopping pagination after {} consecutive pages with no new results", consecutiveEmptyPages);
-                            break;
-                        }
-                    } else {
-                        consecutiveEmptyPages = 0; // Reset counter when we get results
-                    }
-
                     currentPage++;
-
-                } catch (Exception e) {
-                    logger.warn("Failed to fetch page {}: {}, stopping pagination", currentPage, e.getMessage());
+                } catch (ExecutionException e) {
+                    logger.warn("Failed to fetch page {}: {}, stopping pagination", currentPage, e.getCause().getMessage());
+                    break;
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    logger.warn("Interrupted waiting for page {}, stopping pagination", currentPage);
                     break;
                 }
             }
-
-            logger.info("Search completed: {} valid web pages from {} pages (requested: {})",
-                    allResults.size(), currentPage - 1, targetResults);
-
-            if (allResults.size() < targetResults) {
-                logger.warn("Only retrieved {} results out of {} requested. Pagination may have stopped early.",
-                        allResults.size(), targetResults);
+        } finally {
+            if (!inFlight.isEmpty()) {
+                logger.info("Cancelling {} speculative page requests", inFlight.size());
+                inFlight.forEach(page -> page.cancel(true));
+                cancelledPages.increment(inFlight.size());
             }
+        }
+    }
 
-            return new SearxngResponse(query, allResults, List.of());
+    private SearxngResponse fetchPage(String query, int page) throws Exception {
+        return resultCache.get(query, page, () -> {
+            logger.info("Fetching page {}", page);
+            // Make MCP call with page number
+            McpSchema.CallToolRequest toolRequest = McpSchema.CallToolRequest.builder()
+                    .name("web_search")
+                    .arguments(Map.of(
+                            "query", query,
+                            "page", page
+                    ))
+                    .build();
+
+            McpSchema.CallToolResult responseFromTool = mcpClients.callTool(toolRequest);
+            String textualResponse = ((McpSchema.TextContent) responseFromTool.content().get(0)).text();
+            return objectMapper.readValue(textualResponse, SearxngResponse.class);
+        });
+    }
 
-        } catch (Exception e) {
-            logger.error("Web search failed for query '{}': {}", query, e.getMessage(), e);
-            throw new RuntimeException("Web search failed for query '" + query + "': " + e.getMessage(), e);
-        }
+    @Override
+    public void close() {
+        pageExecutor.shutdownNow();
+        mcpClients.close();
     }
 
     /**
@@ -170,8 +218,103 @@ public class WebSearchTool {
         String lowerUrl = url.toLowerCase();
         return EXCLUDED_EXTENSIONS.stream().anyMatch(lowerUrl::endsWith);
     }
-}
 
+    /**
+     * Results gathered so far, deduplicated by URL, and the pagination stop conditions
+     */
+    private class PageResults {
+        final int target;
+        final Consumer<SearxngResult> onResult;
+        final List<SearxngResult> all = new ArrayList<>();
+        final Set<String> seenUrls = new HashSet<>(); // Deduplicate by canonical URL
+        int pagesRead = 0;
+        int consecutiveEmptyPages = 0; // Track consecutive pages with no new results
+
+        PageResults(int target, Consumer<SearxngResult> onResult) {
+            this.target = target;
+            this.onResult = onResult;
+        }
+
+        boolean isComplete() {
+            return all.size() >= target;
+        }
+
+        /**
+         * Pages still needed at the yield so far; unbounded while no page has added anything
+         */
+        int pagesNeeded() {
+            if (all.isEmpty()) {
+                return Integer.MAX_VALUE;
+            }
+            int remaining = target - all.size();
+            return (remaining * pagesRead + all.size() - 1) / all.size();
+        }
+
+        /**
+         * Add the page's unique, valid results
+         *
+         * @return false if pagination should stop
+         */
+        boolean add(int page, SearxngResponse pageResponse) {
+            pagesRead++;
+            int pageResultCount = pageResponse.results().size();
+
+            logger.info("Page {} returned {} raw results", page, pageResultCount);
+
+            // If page returned no results, stop pagination
+            if (pageResultCount == 0) {
+                logger.info("Page {} returned 0 results, stopping pagination", page);
+                return false;
+            }
 
+            // Filter and add unique, valid results
+            int addedCount = 0;
+            int skippedFiles = 0;
+            int duplicates = 0;
 
+            for (SearxngResult result : pageResponse.results()) {
+                // Skip if no URL
+                if (result.url() == null || result.url().trim().isEmpty()) {
+                    continue;
+                }
+
+                // Skip duplicate URLs, including http/https, www, mobile and tracking-parameter variants
+                String canonicalUrl = UrlCanonicalizer.canonicalize(result.url());
+                if (seenUrls.contains(canonicalUrl)) {
+                    duplicates++;
+                    continue;
+                }
 
+                // Skip file URLs (PDFs, docs, etc.)
+                if (isFileUrl(result.url())) {
+                    skippedFiles++;
+                    logger.debug("Skipping file URL: {}", result.url());
+                    continue;
+                }
+
+                // Add valid result
+                seenUrls.add(canonicalUrl);
+                all.add(result);
+                onResult.accept(result);
+                addedCount++;
+            }
+
+            logger.info("Page {}: added {} valid results (skipped {} files, {} duplicates) - total: {}",
+                    page, addedCount, skippedFiles, duplicates, all.size());
+
+            // Track consecutive empty pages
+            if (addedCount == 0) {
+                consecutiveEmptyPages++;
+                logger.info("Page {} added 0 valid results (consecutive empty: {})", page, consecutiveEmptyPages);
+                // Only stop if we've had several consecutive pages with no new results
+                if (consecutiveEmptyPages >= CONSECUTIVE_EMPTY_THRESHOLD) {
+                    logger.info("Stopping pagination after {} consecutive pages with no new results", consecutiveEmptyPages);
+                    return false;
+                }
+            } else {
+                consecutiveEmptyPages = 0; // Reset counter when we get results
+            }
+            return true;
+        }
+    }
+}
@@ -0,0 +1,367 @@
+package com.ninickname.summarizer.tool.fetch;
+
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.apache.hc.client5.http.HttpRoute;
+import org.apache.hc.client5.http.config.ConnectionConfig;
+import org.apache.hc.client5.http.config.RequestConfig;
+import org.apache.hc.client5.http.config.TlsConfig;
+import org.apache.hc.client5.http.impl.DefaultHttpRequestRetryStrategy;
+import org.apache.hc.client5.http.impl.async.CloseableHttpAsyncClient;
+import org.apache.hc.client5.http.impl.async.HttpAsyncClients;
+import org.apache.hc.client5.http.impl.nio.PoolingAsyncClientConnectionManager;
+import org.apache.hc.client5.http.impl.nio.PoolingAsyncClientConnectionManagerBuilder;
+import org.apache.hc.client5.http.nio.AsyncClientConnectionManager;
+import org.apache.hc.client5.http.nio.AsyncConnectionEndpoint;
+import org.apache.hc.client5.http.protocol.HttpClientContext;
+import org.apache.hc.core5.concurrent.FutureCallback;
+import org.apache.hc.core5.http.EntityDetails;
+import org.apache.hc.core5.http.Header;
+import org.apache.hc.core5.http.HttpRequest;
+import org.apache.hc.core5.http.HttpResponse;
+import org.apache.hc.core5.http.nio.AsyncRequestProducer;
+import org.apache.hc.core5.http.nio.AsyncResponseConsumer;
+import org.apache.hc.core5.http.nio.CapacityChannel;
+import org.apache.hc.core5.http.nio.support.AsyncRequestBuilder;
+import org.apache.hc.core5.http.protocol.HttpContext;
+import org.apache.hc.core5.http2.HttpVersionPolicy;
+import org.apache.hc.core5.io.CloseMode;
+import org.apache.hc.core5.pool.PoolStats;
+import org.apache.hc.core5.reactor.ConnectionInitiator;
+import org.apache.hc.core5.util.TimeValue;
+import org.apache.hc.core5.util.Timeout;
+
+import javax.net.ssl.SSLException;
+import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.net.ConnectException;
+import java.net.NoRouteToHostException;
+import java.net.URI;
+import java.net.URISyntaxException;
+import java.net.UnknownHostException;
+import java.nio.ByteBuffer;
+import java.time.Duration;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.function.ToDoubleFunction;
+
+/**
+ * {@link FetchTransport} on the Apache HttpClient 5 async client.
+ *
+ * - Pool: bounded total and per-route connections, idle ones evicted
+ * - HTTP/2: negotiated via ALPN on TLS connections where the server offers it
+ * - DNS: lookups cached for a TTL ({@link CachingDnsResolver})
+ * - Bodies: decoded and capped while streaming; a body that is no longer needed
+ *   (budget spent, refused from its headers) aborts the exchange
+ *
+ * The timeout covers the whole exchange, body included. Metrics:
+ * {@code fetch.pool.connections} (tagged state: leased, available, pending),
+ * {@code fetch.pool.max} and {@code fetch.pool.lease.wait}.
+ */
+public class ApacheFetchTransport implements FetchTransport {
+    private final CloseableHttpAsyncClient client;
+    private final PoolingAsyncClientConnectionManager connectionManager;
+    private final int maxBodyBytes;
+    private final long maxContentLength;
+
+    public ApacheFetchTransport(int maxConnections, int maxConnectionsPerRoute, boolean http2,
+                                Duration connectTimeout, Duration dnsTtl,
+                                int maxBodyBytes, long maxContentLength, MeterRegistry meterRegistry) {
+        this.maxBodyBytes = maxBodyBytes;
+        this.maxContentLength = maxContentLength;
+        this.connectionManager = PoolingAsyncClientConnectionManagerBuilder.create()
+                .setMaxConnTotal(maxConnections)
+                .setMaxConnPerRoute(maxConnectionsPerRoute)
+                .setDnsResolver(new CachingDnsResolver(dnsTtl))
+                .setDefaultConnectionConfig(ConnectionConfig.custom()
+                        .setConnectTimeout(Timeout.of(connectTimeout))
+                        .setValidateAfterInactivity(TimeValue.ofSeconds(10))
+                        .build())
+                .setDefaultTlsConfig(TlsConfig.custom()
+                        .setVersionPolicy(http2 ? HttpVersionPolicy.NEGOTIATE : HttpVersionPolicy.FORCE_HTTP_1)
+                        .build())
+                .build();
+
+        Timer leaseWait = Timer.builder("fetch.pool.lease.wait")
+                .description("Time requests wait for a pooled connection")
+                .register(meterRegistry);
+        registerPoolGauge(meterRegistry, "leased", PoolStats::getLeased);
+        registerPoolGauge(meterRegistry, "available", PoolStats::getAvailable);
+        registerPoolGauge(meterRegistry, "pending", PoolStats::getPending);
+        Gauge.builder("fetch.pool.max", connectionManager, manager -> manager.getTotalStats().getMax())
+                .register(meterRegistry);
+
+        this.client = HttpAsyncClients.custom()
+                .setConnectionManager(new TimedLeases(connectionManager, leaseWait))
+                .disableCookieManagement()
+                .setRetryStrategy(new StaleConnectionRetry())
+                .evictIdleConnections(TimeValue.ofSeconds(30))
+                .build();
+        this.client.start();
+    }
+
+    @Override
+    public FetchResponse get(URI uri, Map<String, String> headers, Duration timeout)
+            throws IOException, InterruptedException {
+        AsyncRequestBuilder request = AsyncRequestBuilder.get(uri);
+        headers.forEach(request::addHeader);
+
+        HttpClientContext context = HttpClientContext.create();
+        context.setRequestConfig(RequestConfig.custom()
+                .setResponseTimeout(Timeout.of(timeout))
+                .setConnectionRequestTimeout(Timeout.of(timeout))
+                .build());
+
+        AsyncRequestProducer producer = request.build();
+        Future<FetchResponse> future = client.execute(producer, new CappedResponseConsumer(uri, context), null, context, null);
+        try {
+            return future.get(timeout.toMillis(), TimeUnit.MILLISECONDS);
+        } catch (TimeoutException e) {
+            future.cancel(true);
+            throw new FetchTimeoutException(timeout);
+        } catch (InterruptedException e) {
+            future.cancel(true);
+            throw e;
+        } catch (ExecutionException e) {
+            Throwable cause = e.getCause();
+            if (cause instanceof IOException io) {
+                throw io;
+            }
+            throw new IOException(cause.getMessage(), cause);
+        }
+    }
+
+    @Override
+    public void close() {
+        client.close(CloseMode.GRACEFUL);
+    }
+
+    private void registerPoolGauge(MeterRegistry meterRegistry, String state, ToDoubleFunction<PoolStats> value) {
+        Gauge.builder("fetch.pool.connections", connectionManager, manager -> value.applyAsDouble(manager.getTotalStats()))
+                .tag("state", state)
+                .register(meterRegistry);
+    }
+
+    /**
+     * Streams the final response into a {@link BodyAccumulator}. Signals arrive
+     * one at a time from the I/O reactor.
+     */
+    private class CappedResponseConsumer implements AsyncResponseConsumer<FetchResponse> {
+        private final URI requestUri;
+        private final HttpClientContext clientContext;
+        private FutureCallback<FetchResponse> resultCallback;
+        private int status;
+        private URI uri;
+        private Map<String, String> headers;
+        private BodyAccumulator body;
+        private boolean done;
+
+        CappedResponseConsumer(URI requestUri, HttpClientContext clientContext) {
+            this.requestUri = requestUri;
+            this.clientContext = clientContext;
+        }
+
+        @Override
+        public void consumeResponse(HttpResponse response, EntityDetails entityDetails, HttpContext context,
+                                    FutureCallback<FetchResponse> resultCallback) throws IOException {
+            // A retried exchange reuses this consumer - start over
+            releaseResources();
+            this.body = null;
+            this.done = false;
+            this.resultCallback = resultCallback;
+            this.status = response.getCode();
+            this.uri = finalUri();
+            this.headers = new HashMap<>();
+            for (Header header : response.getHeaders()) {
+                headers.putIfAbsent(header.getName().toLowerCase(Locale.ROOT), header.getValue());
+            }
+
+            long contentLength = entityDetails != null ? entityDetails.getContentLength() : 0;
+            CappedBody rejection = CappedBodyHandler.rejectionOf(status, headers.get("content-type"),
+                    contentLength, maxContentLength);
+            if (rejection != null) {
+                complete(rejection);
+                return;
+            }
+            if (entityDetails == null) {
+                complete(new CappedBody(new byte[0], false));
+                return;
+            }
+            body = new BodyAccumulator(maxBodyBytes, headers.get("content-encoding"));
+        }
+
+        @Override
+        public void informationResponse(HttpResponse response, HttpContext context) {
+        }
+
+        @Override
+        public void updateCapacity(CapacityChannel capacityChannel) throws IOException {
+            capacityChannel.update(Integer.MAX_VALUE);
+        }
+
+        @Override
+        public void consume(ByteBuffer src) throws IOException {
+            if (done) {
+                // Result already handed over - abort instead of downloading the rest
+                throw new BodyNotNeededException();
+            }
+            if (!body.write(src)) {
+                complete(body.finish(true));
+            }
+        }
+
+        @Override
+        public void streamEnd(List<? extends Header> trailers) {
+            if (!done) {
+                // A compressed stream that did not reach its end was cut short (e.g. by a Range)
+                complete(body.finish(!body.isComplete()));
+            }
+        }
+
+        @Override
+        public void failed(Exception cause) {
+            if (!done && resultCallback != null) {
+                done = true;
+                resultCallback.failed(cause);
+            }
+        }
+
+        @Override
+        public void releaseResources() {
+            if (body != null) {
+                body.close();
+            }
+        }
+
+        private void complete(CappedBody cappedBody) {
+            done = true;
+            resultCallback.completed(new FetchResponse(status, uri, headers, cappedBody));
+        }
+
+        /**
+         * URI of the request actually sent, after redirects. Read from the request
+         * rather than the redirect locations, which a retry clears.
+         */
+        private URI finalUri() {
+            HttpRequest request = clientContext.getRequest();
+            if (request == null) {
+                return requestUri;
+            }
+            try {
+                return request.getUri();
+            } catch (URISyntaxException e) {
+                return requestUri;
+            }
+        }
+    }
+
+    /**
+     * One immediate retry of a GET whose pooled connection the server had already
+     * closed, as java.net.http does. Timeouts, DNS, connect and TLS failures and
+     * deliberately aborted bodies are not retried, nor are responses such as 503 -
+     * a Retry-After wait would not fit the per-page budget.
+     */
+    private static class StaleConnectionRetry extends DefaultHttpRequestRetryStrategy {
+        StaleConnectionRetry() {
+            super(1, TimeValue.ZERO_MILLISECONDS,
+                    List.of(InterruptedIOException.class, UnknownHostException.class, ConnectException.class,
+                            NoRouteToHostException.class, SSLException.class, BodyNotNeededException.class),
+                    List.of());
+        }
+    }
+
+    /**
+     * Aborts an exchange whose result was already handed over. Never retried -
+     * that would fetch the page a second time only to throw it away.
+     */
+    private static class BodyNotNeededException extends IOException {
+        private static final long serialVersionUID = 1L;
+
+        BodyNotNeededException() {
+            super("Response body no longer needed");
+        }
+    }
+
+    /**
+     * Connection manager decorator timing how long each lease waits for a connection
+     */
+    private static class TimedLeases implements AsyncClientConnectionManager {
+        private final AsyncClientConnectionManager delegate;
+        private final Timer leaseWait;
+
+        TimedLeases(AsyncClientConnectionManager delegate, Timer leaseWait) {
+            this.delegate = delegate;
+            this.leaseWait = leaseWait;
+        }
+
+        @Override
+        public Future<AsyncConnectionEndpoint> lease(String id, HttpRoute route, Object state, Timeout requestTimeout,
+                                                     FutureCallback<AsyncConnectionEndpoint> callback) {
+            long start = System.nanoTime();
+            return delegate.lease(id, route, state, requestTimeout, new FutureCallback<>() {
+                @Override
+                public void completed(AsyncConnectionEndpoint endpoint) {
+                    leaseWait.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+                    if (callback != null) {
+                        callback.completed(endpoint);
+                    }
+                }
+
+                @Override
+                public void failed(Exception cause) {
+                    leaseWait.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+                    if (callback != null) {
+                        callback.failed(cause);
+                    }
+                }
+
+                @Override
+                public void cancelled() {
+                    if (callback != null) {
+                        callback.cancelled();
+                    }
+                }
+            });
+        }
+
+        @Override
+        public void release(AsyncConnectionEndpoint endpoint, Object newState, TimeValue validDuration) {
+            delegate.release(endpoint, newState, validDuration);
+        }
+
+        @Override
+        public Future<AsyncConnectionEndpoint> connect(AsyncConnectionEndpoint endpoint, ConnectionInitiator initiator,
+                                                       Timeout connectTimeout, Object attachment, HttpContext context,
+                                                       FutureCallback<AsyncConnectionEndpoint> callback) {
+            return delegate.connect(endpoint, initiator, connectTimeout, attachment, context, callback);
+        }
+
+        @Override
+        public void upgrade(AsyncConnectionEndpoint endpoint, Object attachment, HttpContext context) {
+            delegate.upgrade(endpoint, attachment, context);
+        }
+
+        @Override
+        public void upgrade(AsyncConnectionEndpoint endpoint, Object attachment, HttpContext context,
+                            FutureCallback<AsyncConnectionEndpoint> callback) {
+            delegate.upgrade(endpoint, attachment, context, callback);
+        }
+
+        @Override
+        public void close(CloseMode closeMode) {
+            delegate.close(closeMode);
+        }
+
+        @Override
+        public void close() throws IOException {
+            delegate.close();
+        }
+    }
+}
@@ -0,0 +1,65 @@
+package com.ninickname.summarizer.tool.fetch;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.util.Arrays;
+
+/**
+ * Decodes a response body (per its Content-Encoding) into a growable array,
+ * keeping at most {@code maxBytes} decoded bytes. Not thread-safe - callers
+ * feed it from one serialized stream of body chunks.
+ */
+class BodyAccumulator {
+    private static final int INITIAL_BUFFER_SIZE = 32 * 1024;
+
+    private final int maxBytes;
+    private final ContentDecoder decoder;
+    private byte[] data;
+    private int size;
+
+    BodyAccumulator(int maxBytes, String contentEncoding) throws IOException {
+        this.maxBytes = maxBytes;
+        this.decoder = ContentDecoder.forEncoding(contentEncoding);
+        this.data = new byte[Math.min(maxBytes, INITIAL_BUFFER_SIZE)];
+    }
+
+    /**
+     * Decode a raw body chunk; false once the budget is spent
+     */
+    boolean write(ByteBuffer chunk) throws IOException {
+        return decoder.decode(chunk, this::append);
+    }
+
+    /**
+     * True if a compressed stream reached its end (always true for identity)
+     */
+    boolean isComplete() {
+        return decoder.isComplete();
+    }
+
+    CappedBody finish(boolean truncated) {
+        decoder.close();
+        return new CappedBody(Arrays.copyOf(data, size), truncated);
+    }
+
+    void close() {
+        decoder.close();
+    }
+
+    /**
+     * Copy decoded bytes up to the budget; false once the budget is spent
+     */
+    private boolean append(ByteBuffer chunk) {
+        int n = Math.min(chunk.remaining(), maxBytes - size);
+        ensureCapacity(size + n);
+        chunk.get(data, size, n);
+        size += n;
+        return size < maxBytes;
+    }
+
+    private void ensureCapacity(int capacity) {
+        if (capacity > data.length) {
+            data = Arrays.copyOf(data, Math.min(maxBytes, Math.max(capacity, data.length * 2)));
+        }
+    }
+}
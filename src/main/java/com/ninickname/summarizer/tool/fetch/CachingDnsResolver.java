@@ -0,0 +1,63 @@
+package com.ninickname.summarizer.tool.fetch;
+
+import org.apache.hc.client5.http.DnsResolver;
+import org.apache.hc.client5.http.SystemDefaultDnsResolver;
+
+import java.net.InetAddress;
+import java.net.UnknownHostException;
+import java.time.Duration;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * DNS resolver that keeps successful lookups for a fixed TTL, so repeat fetches
+ * from the same hosts skip the resolver (the JVM's own cache keeps them 30s).
+ * Failed lookups are not cached - the negative cache and host quarantine handle
+ * hosts that keep failing.
+ */
+public class CachingDnsResolver implements DnsResolver {
+    private static final int MAX_HOSTS = 4096;
+
+    private final DnsResolver delegate;
+    private final long ttlNanos;
+    private final Map<String, Entry> entries; // guarded by itself
+
+    private record Entry(InetAddress[] addresses, long expiresAt) {}
+
+    public CachingDnsResolver(Duration ttl) {
+        this(SystemDefaultDnsResolver.INSTANCE, ttl);
+    }
+
+    CachingDnsResolver(DnsResolver delegate, Duration ttl) {
+        this.delegate = delegate;
+        this.ttlNanos = ttl.toNanos();
+        this.entries = new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, Entry> eldest) {
+                return size() > MAX_HOSTS;
+            }
+        };
+    }
+
+    @Override
+    public InetAddress[] resolve(String host) throws UnknownHostException {
+        long now = System.nanoTime();
+        synchronized (entries) {
+            Entry entry = entries.get(host);
+            if (entry != null && now - entry.expiresAt() < 0) {
+                return entry.addresses().clone();
+            }
+        }
+
+        InetAddress[] addresses = delegate.resolve(host);
+        synchronized (entries) {
+            entries.put(host, new Entry(addresses.clone(), now + ttlNanos));
+        }
+        return addresses;
+    }
+
+    @Override
+    public String resolveCanonicalHostname(String host) throws UnknownHostException {
+        return delegate.resolveCanonicalHostname(host);
+    }
+}
@@ -0,0 +1,32 @@
+package com.ninickname.summarizer.tool.fetch;
+
+/**
+ * Raw response body read by {@link CappedBodyHandler}.
+ *
+ * @param bytes        body bytes, at most the configured byte budget
+ * @param truncated    true if the stream was cancelled because the budget was spent
+ * @param rejectReason set if the body was refused from its headers and never downloaded
+ * @param rejectDetail the offending header value, for logs
+ */
+public record CappedBody(
+        byte[] bytes,
+        boolean truncated,
+        RejectReason rejectReason,
+        String rejectDetail
+) {
+    public CappedBody(byte[] bytes, boolean truncated) {
+        this(bytes, truncated, null, null);
+    }
+
+    static CappedBody rejected(RejectReason reason, String detail) {
+        return new CappedBody(new byte[0], false, reason, detail);
+    }
+
+    public boolean isEmpty() {
+        return bytes.length == 0;
+    }
+
+    public boolean isRejected() {
+        return rejectReason != null;
+    }
+}
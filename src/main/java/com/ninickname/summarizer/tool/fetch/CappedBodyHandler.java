@@ -0,0 +1,208 @@
+package com.ninickname.summarizer.tool.fetch;
+
+import java.io.IOException;
+import java.net.http.HttpHeaders;
+import java.net.http.HttpResponse;
+import java.nio.ByteBuffer;
+import java.util.List;
+import java.util.Locale;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionStage;
+import java.util.concurrent.Flow;
+
+/**
+ * Body handler that keeps at most {@code maxBytes} of the response body.
+ *
+ * Once the budget is spent the subscription is cancelled, so the rest of an
+ * oversized page is never downloaded or buffered. Chunks are requested one at a
+ * time, so the client never reads far past the budget.
+ *
+ * gzip and deflate bodies are decompressed as they stream in; the budget applies
+ * to the decoded bytes.
+ *
+ * Successful responses whose headers show they are not worth reading - a non-HTML
+ * Content-Type or a Content-Length above {@code maxContentLength} - are refused
+ * before any body byte is read (see {@link CappedBody#rejectReason()}).
+ */
+public class CappedBodyHandler implements HttpResponse.BodyHandler<CappedBody> {
+    private static final Set<String> HTML_MEDIA_TYPES = Set.of("text/html", "application/xhtml+xml");
+
+    private final int maxBytes;
+    private final long maxContentLength;
+
+    public CappedBodyHandler(int maxBytes) {
+        this(maxBytes, Long.MAX_VALUE);
+    }
+
+    public CappedBodyHandler(int maxBytes, long maxContentLength) {
+        if (maxBytes <= 0) {
+            throw new IllegalArgumentException("maxBytes must be positive: " + maxBytes);
+        }
+        this.maxBytes = maxBytes;
+        this.maxContentLength = maxContentLength;
+    }
+
+    public int getMaxBytes() {
+        return maxBytes;
+    }
+
+    public long getMaxContentLength() {
+        return maxContentLength;
+    }
+
+    @Override
+    public HttpResponse.BodySubscriber<CappedBody> apply(HttpResponse.ResponseInfo responseInfo) {
+        HttpHeaders headers = responseInfo.headers();
+        CappedBody rejection = rejectionOf(responseInfo.statusCode(),
+                headers.firstValue("Content-Type").orElse(null),
+                headers.firstValueAsLong("Content-Length").orElse(-1),
+                maxContentLength);
+        if (rejection != null) {
+            return new RejectingSubscriber(rejection);
+        }
+
+        String contentEncoding = headers.firstValue("Content-Encoding").orElse(null);
+        return new CappedBodySubscriber(maxBytes, contentEncoding);
+    }
+
+    /**
+     * Rejection for a successful response whose headers show it is not worth reading,
+     * or null. Shared by every {@link FetchTransport}.
+     */
+    static CappedBody rejectionOf(int status, String contentType, long contentLength, long maxContentLength) {
+        if (status < 200 || status >= 300) {
+            return null;
+        }
+
+        // A missing Content-Type is let through - Jsoup sniffs it like a browser would
+        String mediaType = contentType == null ? "" : contentType.split(";", 2)[0].trim().toLowerCase(Locale.ROOT);
+        if (!mediaType.isEmpty() && !HTML_MEDIA_TYPES.contains(mediaType)) {
+            return CappedBody.rejected(RejectReason.NOT_HTML, contentType);
+        }
+
+        if (contentLength > maxContentLength) {
+            return CappedBody.rejected(RejectReason.TOO_LARGE, contentLength + " bytes");
+        }
+        return null;
+    }
+
+    /**
+     * Cancels the body as soon as it is offered and completes with the rejection
+     */
+    static class RejectingSubscriber implements HttpResponse.BodySubscriber<CappedBody> {
+        private final CappedBody rejection;
+
+        RejectingSubscriber(CappedBody rejection) {
+            this.rejection = rejection;
+        }
+
+        @Override
+        public void onSubscribe(Flow.Subscription subscription) {
+            subscription.cancel();
+        }
+
+        @Override
+        public void onNext(List<ByteBuffer> items) {
+        }
+
+        @Override
+        public void onError(Throwable throwable) {
+        }
+
+        @Override
+        public void onComplete() {
+        }
+
+        @Override
+        public CompletionStage<CappedBody> getBody() {
+            return CompletableFuture.completedFuture(rejection);
+        }
+    }
+
+    /**
+     * Feeds body chunks to a {@link BodyAccumulator} until the budget is reached.
+     * Flow signals are serialized by the client, so no locking is needed.
+     */
+    static class CappedBodySubscriber implements HttpResponse.BodySubscriber<CappedBody> {
+        private final CompletableFuture<CappedBody> result = new CompletableFuture<>();
+        private BodyAccumulator body;
+        private IOException decoderFailure;
+        private Flow.Subscription subscription;
+        private boolean done;
+
+        CappedBodySubscriber(int maxBytes, String contentEncoding) {
+            try {
+                this.body = new BodyAccumulator(maxBytes, contentEncoding);
+            } catch (IOException e) {
+                this.decoderFailure = e;
+            }
+        }
+
+        @Override
+        public void onSubscribe(Flow.Subscription subscription) {
+            this.subscription = subscription;
+            if (decoderFailure != null) {
+                subscription.cancel();
+                fail(decoderFailure);
+                return;
+            }
+            subscription.request(1);
+        }
+
+        @Override
+        public void onNext(List<ByteBuffer> items) {
+            if (done) {
+                return;
+            }
+            try {
+                for (ByteBuffer item : items) {
+                    if (!body.write(item)) {
+                        // Budget spent - stop the download and hand over what we have
+                        subscription.cancel();
+                        finish(true);
+                        return;
+                    }
+                }
+            } catch (IOException e) {
+                subscription.cancel();
+                fail(e);
+                return;
+            }
+            subscription.request(1);
+        }
+
+        @Override
+        public void onError(Throwable throwable) {
+            fail(throwable);
+        }
+
+        @Override
+        public void onComplete() {
+            // A compressed stream that did not reach its end was cut short (e.g. by a Range)
+            finish(!body.isComplete());
+        }
+
+        @Override
+        public CompletionStage<CappedBody> getBody() {
+            return result;
+        }
+
+        private void finish(boolean truncated) {
+            if (!done) {
+                done = true;
+                result.complete(body.finish(truncated));
+            }
+        }
+
+        private void fail(Throwable throwable) {
+            if (!done) {
+                done = true;
+                if (body != null) {
+                    body.close();
+                }
+                result.completeExceptionally(throwable);
+            }
+        }
+    }
+}
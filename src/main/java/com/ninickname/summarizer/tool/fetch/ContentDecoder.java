@@ -0,0 +1,206 @@
+package com.ninickname.summarizer.tool.fetch;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.util.Arrays;
+import java.util.Locale;
+import java.util.zip.DataFormatException;
+import java.util.zip.Inflater;
+
+/**
+ * Streaming decoder for a response {@code Content-Encoding}.
+ *
+ * Decodes chunk by chunk as the body arrives and hands the decoded bytes to a
+ * {@link Sink}, so a compressed page is never buffered whole before the byte cap
+ * applies. Supports identity, gzip and deflate (zlib-wrapped or raw).
+ */
+abstract class ContentDecoder {
+
+    /**
+     * Receives decoded bytes; returns false to stop decoding (budget spent)
+     */
+    interface Sink {
+        boolean accept(ByteBuffer chunk);
+    }
+
+    static ContentDecoder forEncoding(String contentEncoding) throws IOException {
+        String encoding = contentEncoding == null ? "" : contentEncoding.trim().toLowerCase(Locale.ROOT);
+        return switch (encoding) {
+            case "", "identity" -> new Identity();
+            case "gzip", "x-gzip" -> new Gzip();
+            case "deflate" -> new Deflate();
+            default -> throw new IOException("Unsupported Content-Encoding: " + contentEncoding);
+        };
+    }
+
+    /**
+     * Decode one chunk of the encoded body. Returns false if the sink asked to stop.
+     */
+    abstract boolean decode(ByteBuffer encoded, Sink sink) throws IOException;
+
+    /**
+     * Whether the encoded stream ended properly (false means the body was cut short)
+     */
+    abstract boolean isComplete();
+
+    /**
+     * Release native inflater memory
+     */
+    void close() {
+    }
+
+    private static class Identity extends ContentDecoder {
+        @Override
+        boolean decode(ByteBuffer encoded, Sink sink) {
+            return sink.accept(encoded);
+        }
+
+        @Override
+        boolean isComplete() {
+            return true;
+        }
+    }
+
+    /**
+     * Inflater-based decoding. The first bytes of the stream are buffered until the
+     * format header can be read, then everything streams through the inflater.
+     */
+    private abstract static class Inflating extends ContentDecoder {
+        private static final int OUTPUT_BUFFER_SIZE = 16 * 1024;
+
+        private final byte[] output = new byte[OUTPUT_BUFFER_SIZE];
+        private Inflater inflater;
+        private byte[] header = new byte[0];
+
+        /**
+         * Length of the format header in the given prefix, or -1 if more bytes are needed.
+         * Creates the inflater once the header is understood.
+         */
+        abstract int readHeader(byte[] prefix, int length) throws IOException;
+
+        void startInflater(boolean nowrap) {
+            inflater = new Inflater(nowrap);
+        }
+
+        @Override
+        boolean decode(ByteBuffer encoded, Sink sink) throws IOException {
+            if (inflater == null) {
+                int offset = header.length;
+                header = Arrays.copyOf(header, offset + encoded.remaining());
+                encoded.get(header, offset, header.length - offset);
+
+                int headerLength = readHeader(header, header.length);
+                if (headerLength < 0) {
+                    return true;
+                }
+                encoded = ByteBuffer.wrap(header, headerLength, header.length - headerLength);
+                header = null;
+            }
+            return inflate(encoded, sink);
+        }
+
+        private boolean inflate(ByteBuffer encoded, Sink sink) throws IOException {
+            if (inflater.finished()) {
+                return true; // Trailer or trailing garbage - nothing more to decode
+            }
+            inflater.setInput(encoded);
+            try {
+                while (!inflater.finished()) {
+                    int n = inflater.inflate(output);
+                    if (n > 0) {
+                        if (!sink.accept(ByteBuffer.wrap(output, 0, n))) {
+                            return false;
+                        }
+                    } else if (inflater.needsInput()) {
+                        break;
+                    } else if (inflater.needsDictionary()) {
+                        throw new IOException("Deflate stream requires a preset dictionary");
+                    }
+                }
+            } catch (DataFormatException e) {
+                throw new IOException("Corrupt compressed body: " + e.getMessage(), e);
+            }
+            return true;
+        }
+
+        @Override
+        boolean isComplete() {
+            return inflater != null && inflater.finished();
+        }
+
+        @Override
+        void close() {
+            if (inflater != null) {
+                inflater.end();
+            }
+        }
+    }
+
+    private static class Gzip extends Inflating {
+        private static final int FHCRC = 2;
+        private static final int FEXTRA = 4;
+        private static final int FNAME = 8;
+        private static final int FCOMMENT = 16;
+
+        @Override
+        int readHeader(byte[] prefix, int length) throws IOException {
+            if (length < 10) {
+                return -1;
+            }
+            if ((prefix[0] & 0xff) != 0x1f || (prefix[1] & 0xff) != 0x8b || prefix[2] != 8) {
+                throw new IOException("Not in gzip format");
+            }
+            int flags = prefix[3] & 0xff;
+            int position = 10;
+
+            if ((flags & FEXTRA) != 0) {
+                if (length < position + 2) {
+                    return -1;
+                }
+                position += 2 + ((prefix[position] & 0xff) | (prefix[position + 1] & 0xff) << 8);
+            }
+            if ((flags & FNAME) != 0) {
+                position = skipZeroTerminated(prefix, position, length);
+            }
+            if ((flags & FCOMMENT) != 0 && position >= 0) {
+                position = skipZeroTerminated(prefix, position, length);
+            }
+            if ((flags & FHCRC) != 0 && position >= 0) {
+                position += 2;
+            }
+            if (position < 0 || position > length) {
+                return -1;
+            }
+
+            startInflater(true);
+            return position;
+        }
+
+        private static int skipZeroTerminated(byte[] prefix, int position, int length) {
+            for (int i = position; i < length; i++) {
+                if (prefix[i] == 0) {
+                    return i + 1;
+                }
+            }
+            return -1;
+        }
+    }
+
+    /**
+     * HTTP "deflate" should be zlib-wrapped, but some servers send raw deflate;
+     * the zlib header checksum tells the two apart.
+     */
+    private static class Deflate extends Inflating {
+        @Override
+        int readHeader(byte[] prefix, int length) {
+            if (length < 2) {
+                return -1;
+            }
+            int cmf = prefix[0] & 0xff;
+            int flg = prefix[1] & 0xff;
+            boolean zlib = (cmf & 0x0f) == 8 && (cmf << 8 | flg) % 31 == 0;
+            startInflater(!zlib);
+            return 0;
+        }
+    }
+}
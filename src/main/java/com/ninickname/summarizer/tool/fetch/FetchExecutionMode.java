@@ -0,0 +1,17 @@
+package com.ninickname.summarizer.tool.fetch;
+
+/**
+ * How page fetches are scheduled onto threads.
+ */
+public enum FetchExecutionMode {
+    /**
+     * Fixed pool of platform threads; the pool size is the concurrency limit
+     */
+    FIXED,
+
+    /**
+     * One virtual thread per fetch, bounded by an explicit concurrency limit.
+     * Falls back to one platform thread per fetch on JVMs without virtual threads (Java 17-20).
+     */
+    VIRTUAL
+}
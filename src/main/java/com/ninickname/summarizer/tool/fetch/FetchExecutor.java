@@ -0,0 +1,84 @@
+package com.ninickname.summarizer.tool.fetch;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Semaphore;
+
+/**
+ * Executor for blocking page fetches.
+ *
+ * In {@link FetchExecutionMode#FIXED} mode tasks queue on a fixed platform pool.
+ * In {@link FetchExecutionMode#VIRTUAL} mode every fetch gets its own thread and a
+ * semaphore caps how many run at once, so a large request no longer queues behind
+ * a handful of blocking {@code HttpClient.send} calls.
+ */
+public class FetchExecutor implements Executor {
+    private static final Logger logger = LoggerFactory.getLogger(FetchExecutor.class);
+
+    private final ExecutorService delegate;
+    private final Semaphore permits; // null in FIXED mode - the pool itself is the limit
+    private final FetchExecutionMode mode;
+
+    private FetchExecutor(ExecutorService delegate, Semaphore permits, FetchExecutionMode mode) {
+        this.delegate = delegate;
+        this.permits = permits;
+        this.mode = mode;
+    }
+
+    public static FetchExecutor create(FetchExecutionMode mode, int poolSize, int maxConcurrency) {
+        if (mode == FetchExecutionMode.VIRTUAL) {
+            logger.info("Fetch executor: thread-per-fetch, max {} concurrent fetches", maxConcurrency);
+            return new FetchExecutor(newThreadPerTaskExecutor(), new Semaphore(maxConcurrency), mode);
+        }
+        logger.info("Fetch executor: fixed pool of {} threads", poolSize);
+        return new FetchExecutor(Executors.newFixedThreadPool(poolSize), null, mode);
+    }
+
+    @Override
+    public void execute(Runnable command) {
+        if (permits == null) {
+            delegate.execute(command);
+            return;
+        }
+        delegate.execute(() -> {
+            try {
+                permits.acquire();
+            } catch (InterruptedException e) {
+                // Still run the task so its future completes; the interrupt flag makes it fail fast
+                Thread.currentThread().interrupt();
+                command.run();
+                return;
+            }
+            try {
+                command.run();
+            } finally {
+                permits.release();
+            }
+        });
+    }
+
+    public FetchExecutionMode getMode() {
+        return mode;
+    }
+
+    public void shutdown() {
+        delegate.shutdown();
+    }
+
+    /**
+     * Virtual thread per task on Java 21+, resolved reflectively so the project still builds on Java 17
+     */
+    private static ExecutorService newThreadPerTaskExecutor() {
+        try {
+            return (ExecutorService) Executors.class.getMethod("newVirtualThreadPerTaskExecutor").invoke(null);
+        } catch (ReflectiveOperationException e) {
+            logger.warn("Virtual threads not available on Java {}, using a platform thread per fetch",
+                    Runtime.version().feature());
+            return Executors.newCachedThreadPool();
+        }
+    }
+}
@@ -0,0 +1,19 @@
+package com.ninickname.summarizer.tool.fetch;
+
+import java.net.URI;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Optional;
+
+/**
+ * Final response of a fetch, after redirects.
+ *
+ * @param uri     URI the body came from - differs from the requested one after redirects
+ * @param headers first value of each header, keyed by lowercased name
+ */
+public record FetchResponse(int statusCode, URI uri, Map<String, String> headers, CappedBody body) {
+
+    public Optional<String> header(String name) {
+        return Optional.ofNullable(headers.get(name.toLowerCase(Locale.ROOT)));
+    }
+}
@@ -0,0 +1,15 @@
+package com.ninickname.summarizer.tool.fetch;
+
+import java.io.IOException;
+import java.time.Duration;
+
+/**
+ * A request did not complete within its timeout
+ */
+public class FetchTimeoutException extends IOException {
+    private static final long serialVersionUID = 1L;
+
+    public FetchTimeoutException(Duration timeout) {
+        super("Request timed out after " + timeout.toMillis() + "ms");
+    }
+}
@@ -0,0 +1,25 @@
+package com.ninickname.summarizer.tool.fetch;
+
+import java.io.IOException;
+import java.net.URI;
+import java.time.Duration;
+import java.util.Map;
+
+/**
+ * HTTP engine behind the content fetcher.
+ *
+ * Implementations follow redirects, keep at most {@code maxBodyBytes} of the
+ * decoded body and refuse non-HTML or oversized responses from their headers,
+ * exactly like {@link CappedBodyHandler}.
+ *
+ * The timeout covers the whole exchange, from sending the request to the last body
+ * byte kept; a request that exceeds it fails with {@link FetchTimeoutException}. The
+ * host latency history that timeouts are derived from is sampled over the same span.
+ */
+public interface FetchTransport extends AutoCloseable {
+
+    FetchResponse get(URI uri, Map<String, String> headers, Duration timeout) throws IOException, InterruptedException;
+
+    @Override
+    void close();
+}
@@ -0,0 +1,23 @@
+package com.ninickname.summarizer.tool.fetch;
+
+/**
+ * Which HTTP engine performs page fetches.
+ */
+public enum FetchTransportType {
+    /**
+     * {@code java.net.http.HttpClient} with its built-in connection handling
+     */
+    JDK,
+
+    /**
+     * Apache HttpClient 5 async client: bounded connection pool, HTTP/2 via ALPN where
+     * offered, a TTL DNS cache and pool metrics
+     */
+    APACHE,
+
+    /**
+     * No network: responses served from a recorded {@link PageArchive} with their
+     * recorded latencies
+     */
+    REPLAY
+}
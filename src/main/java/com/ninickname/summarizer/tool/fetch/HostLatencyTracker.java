@@ -0,0 +1,124 @@
+package com.ninickname.summarizer.tool.fetch;
+
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Rolling latency history per host, used to pick each request's timeout.
+ *
+ * Every host keeps its last {@code window} request latencies; a global window
+ * covers hosts without enough history yet. The timeout is a high percentile of
+ * that history times a safety multiplier, clamped to [min, max] and to what is
+ * left of the caller's budget. Timeouts count as samples of the timeout used, so
+ * a host that keeps timing out is given progressively more time, up to max.
+ */
+public class HostLatencyTracker {
+    private static final int MAX_TRACKED_HOSTS = 1024;
+
+    private final int window;
+    private final int minSamples;
+    private final double percentile;
+    private final double multiplier;
+    private final long minMillis;
+    private final long maxMillis;
+
+    private final LatencyWindow global;
+    private final Map<String, LatencyWindow> hosts; // guarded by itself
+
+    public HostLatencyTracker(int window, int minSamples, double percentile, double multiplier,
+                              Duration min, Duration max) {
+        if (window <= 0 || minSamples <= 0 || minSamples > window) {
+            throw new IllegalArgumentException("need 0 < minSamples <= window, got " + minSamples + "/" + window);
+        }
+        if (percentile <= 0 || percentile > 1) {
+            throw new IllegalArgumentException("percentile must be in (0, 1]: " + percentile);
+        }
+        this.window = window;
+        this.minSamples = minSamples;
+        this.percentile = percentile;
+        this.multiplier = multiplier;
+        this.minMillis = min.toMillis();
+        this.maxMillis = max.toMillis();
+        this.global = new LatencyWindow(window);
+        this.hosts = new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, LatencyWindow> eldest) {
+                return size() > MAX_TRACKED_HOSTS;
+            }
+        };
+    }
+
+    /**
+     * Timeout for the next request to the host, never more than the remaining budget
+     */
+    public Duration timeoutFor(String host, Duration remainingBudget) {
+        LatencyWindow history = windowOf(host, false);
+        long observed = history != null ? history.percentile(percentile, minSamples) : -1;
+        if (observed < 0) {
+            observed = global.percentile(percentile, minSamples);
+        }
+
+        long timeout = observed < 0
+                ? maxMillis // No history anywhere yet - be generous
+                : Math.max(minMillis, Math.min(maxMillis, (long) (observed * multiplier)));
+        return Duration.ofMillis(Math.min(timeout, Math.max(0, remainingBudget.toMillis())));
+    }
+
+    public void record(String host, Duration latency) {
+        long millis = latency.toMillis();
+        windowOf(host, true).add(millis);
+        global.add(millis);
+    }
+
+    /**
+     * A request to the host timed out after the given timeout
+     */
+    public void recordTimeout(String host, Duration timeout) {
+        record(host, timeout);
+    }
+
+    private LatencyWindow windowOf(String host, boolean create) {
+        synchronized (hosts) {
+            LatencyWindow history = hosts.get(host);
+            if (history == null && create) {
+                history = new LatencyWindow(window);
+                hosts.put(host, history);
+            }
+            return history;
+        }
+    }
+
+    /**
+     * Ring buffer of the most recent latencies in milliseconds
+     */
+    private static class LatencyWindow {
+        private final long[] samples;
+        private int next;
+        private int count;
+
+        LatencyWindow(int size) {
+            this.samples = new long[size];
+        }
+
+        synchronized void add(long millis) {
+            samples[next] = millis;
+            next = (next + 1) % samples.length;
+            count = Math.min(count + 1, samples.length);
+        }
+
+        /**
+         * Nearest-rank percentile, or -1 with fewer than minSamples samples
+         */
+        synchronized long percentile(double percentile, int minSamples) {
+            if (count < minSamples) {
+                return -1;
+            }
+            long[] sorted = Arrays.copyOf(samples, count);
+            Arrays.sort(sorted);
+            int rank = (int) Math.ceil(percentile * count);
+            return sorted[Math.max(0, rank - 1)];
+        }
+    }
+}
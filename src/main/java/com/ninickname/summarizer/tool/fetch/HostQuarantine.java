@@ -0,0 +1,187 @@
+package com.ninickname.summarizer.tool.fetch;
+
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.time.Duration;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Per-host circuit breaker over the outcomes of recent fetches.
+ *
+ * Each host keeps its last {@code window} outcomes. Once it has at least
+ * {@code minSamples} and its success rate drops below {@code minSuccessRate}, the
+ * host is quarantined: {@link #allow} refuses it, so its URLs are skipped before
+ * any network I/O. Every {@code probeInterval} one request is let through as a
+ * probe - success releases the host with a clean history, failure keeps it
+ * quarantined for another interval. Outcomes of requests started before the
+ * quarantine are ignored while it lasts.
+ *
+ * Metric: {@code fetch.host.quarantined} (hosts currently quarantined).
+ */
+public class HostQuarantine {
+    private static final Logger logger = LoggerFactory.getLogger(HostQuarantine.class);
+    private static final int MAX_TRACKED_HOSTS = 1024;
+
+    private final boolean enabled;
+    private final int window;
+    private final int minSamples;
+    private final double minSuccessRate;
+    private final long probeIntervalNanos;
+    private final Map<String, HostHealth> hosts; // guarded by itself
+
+    public HostQuarantine(boolean enabled, int window, int minSamples, double minSuccessRate, Duration probeInterval,
+                          MeterRegistry meterRegistry) {
+        if (window <= 0 || minSamples <= 0 || minSamples > window) {
+            throw new IllegalArgumentException("need 0 < minSamples <= window, got " + minSamples + "/" + window);
+        }
+        this.enabled = enabled;
+        this.window = window;
+        this.minSamples = minSamples;
+        this.minSuccessRate = minSuccessRate;
+        this.probeIntervalNanos = probeInterval.toNanos();
+        this.hosts = new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, HostHealth> eldest) {
+                return size() > MAX_TRACKED_HOSTS;
+            }
+        };
+        Gauge.builder("fetch.host.quarantined", this, HostQuarantine::quarantinedCount)
+                .description("Hosts whose URLs are skipped until a probe succeeds")
+                .register(meterRegistry);
+    }
+
+    /**
+     * False while the host is quarantined; true for a healthy host or when a probe is due
+     */
+    public boolean allow(String host) {
+        if (!enabled) {
+            return true;
+        }
+        HostHealth health = healthOf(host, false);
+        return health == null || health.allow(System.nanoTime());
+    }
+
+    public void recordSuccess(String host) {
+        if (!enabled) {
+            return;
+        }
+        HostHealth health = healthOf(host, true);
+        if (health.record(true, System.nanoTime())) {
+            logger.info("Host {} released from quarantine after a successful probe", host);
+        }
+    }
+
+    public void recordFailure(String host) {
+        if (!enabled) {
+            return;
+        }
+        HostHealth health = healthOf(host, true);
+        if (health.record(false, System.nanoTime())) {
+            logger.warn("Host {} quarantined: success rate below {} over its last {} fetches",
+                    host, minSuccessRate, window);
+        }
+    }
+
+    private HostHealth healthOf(String host, boolean create) {
+        synchronized (hosts) {
+            HostHealth health = hosts.get(host);
+            if (health == null && create) {
+                health = new HostHealth();
+                hosts.put(host, health);
+            }
+            return health;
+        }
+    }
+
+    private int quarantinedCount() {
+        synchronized (hosts) {
+            int count = 0;
+            for (HostHealth health : hosts.values()) {
+                if (health.isQuarantined()) {
+                    count++;
+                }
+            }
+            return count;
+        }
+    }
+
+    /**
+     * Ring buffer of recent outcomes plus the quarantine state
+     */
+    private class HostHealth {
+        private final boolean[] outcomes = new boolean[window];
+        private int next;
+        private int count;
+        private int successes;
+
+        private boolean quarantined;
+        private boolean probing;
+        private long nextProbeAt;
+
+        synchronized boolean allow(long now) {
+            if (!quarantined) {
+                return true;
+            }
+            if (now - nextProbeAt < 0) {
+                return false;
+            }
+            // One probe per interval - a probe that never reports back is simply retried
+            probing = true;
+            nextProbeAt = now + probeIntervalNanos;
+            return true;
+        }
+
+        /**
+         * Returns true if the outcome changed the quarantine state
+         */
+        synchronized boolean record(boolean success, long now) {
+            if (quarantined) {
+                if (!probing) {
+                    return false;
+                }
+                probing = false;
+                if (!success) {
+                    nextProbeAt = now + probeIntervalNanos;
+                    return false;
+                }
+                quarantined = false;
+                next = 0;
+                count = 0;
+                successes = 0;
+                add(true);
+                return true;
+            }
+
+            add(success);
+            if (count >= minSamples && successes < minSuccessRate * count) {
+                quarantined = true;
+                nextProbeAt = now + probeIntervalNanos;
+                return true;
+            }
+            return false;
+        }
+
+        synchronized boolean isQuarantined() {
+            return quarantined;
+        }
+
+        private void add(boolean success) {
+            if (count == outcomes.length) {
+                if (outcomes[next]) {
+                    successes--;
+                }
+            } else {
+                count++;
+            }
+            outcomes[next] = success;
+            if (success) {
+                successes++;
+            }
+            next = (next + 1) % outcomes.length;
+        }
+    }
+}
@@ -0,0 +1,254 @@
+package com.ninickname.summarizer.tool.fetch;
+
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+
+import java.net.URI;
+import java.time.Duration;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Per-host politeness for page fetches.
+ *
+ * Each host gets its own concurrency limit and a minimum spacing between request
+ * starts, so result lists that cluster on a few hosts (Wikipedia, Reddit, ...) do
+ * not hammer them into throttling. Waiting for a host holds no thread: requests queue
+ * per host and their permit completes once a slot is free and the spacing has passed,
+ * so fetch workers only ever run requests that can start. Callers should still submit
+ * work in {@link #interleaveByHost} order so hosts take turns.
+ *
+ * Metrics: {@code fetch.host.queue.depth} (gauge) and {@code fetch.host.wait} (timer),
+ * both tagged with the host.
+ */
+public class HostScheduler {
+    private static final int MAX_TRACKED_HOSTS = 1024;
+    private static final Duration EVICTION_INTERVAL = Duration.ofSeconds(10);
+
+    private final int maxConcurrencyPerHost;
+    private final long minSpacingNanos;
+    private final MeterRegistry meterRegistry;
+    private final Map<String, HostState> hosts = new ConcurrentHashMap<>();
+    private final ScheduledExecutorService spacingTimer = Executors.newSingleThreadScheduledExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "fetch-host-spacing");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    public HostScheduler(int maxConcurrencyPerHost, Duration minSpacing, MeterRegistry meterRegistry) {
+        this.maxConcurrencyPerHost = maxConcurrencyPerHost;
+        this.minSpacingNanos = minSpacing.toNanos();
+        this.meterRegistry = meterRegistry;
+        // Off the fetch path: a sweep visits every tracked host
+        long evictionMillis = EVICTION_INTERVAL.toMillis();
+        spacingTimer.scheduleAtFixedRate(this::evictIdleHosts, evictionMillis, evictionMillis, TimeUnit.MILLISECONDS);
+    }
+
+    /**
+     * Queue for a slot on the URL's host. The future completes once the host has a free
+     * slot and its spacing interval has passed - on the scheduler's timer or on the thread
+     * releasing a slot, so continue on an executor. The permit must be closed when the
+     * request finishes; cancelling the future gives up the place in the queue.
+     */
+    public CompletableFuture<Permit> acquire(String url) {
+        CompletableFuture<Permit> permit = new CompletableFuture<>();
+        Waiter waiter = new Waiter(permit, System.nanoTime());
+
+        // Queued under compute, so evictIdleHosts cannot drop the state in between
+        HostState state = hosts.compute(hostOf(url), (host, existing) -> {
+            HostState current = existing != null ? existing : newHostState(host);
+            synchronized (current) {
+                current.queue.addLast(waiter);
+            }
+            return current;
+        });
+        state.waiting.incrementAndGet();
+        permit.whenComplete((granted, failure) -> state.waiting.decrementAndGet());
+        dispatch(state);
+        return permit;
+    }
+
+    /**
+     * Reorder URLs round-robin across hosts (a1, b1, c1, a2, b2, ...), keeping per-host order
+     */
+    public static List<String> interleaveByHost(List<String> urls) {
+        Map<String, Deque<String>> byHost = new LinkedHashMap<>();
+        for (String url : urls) {
+            byHost.computeIfAbsent(hostOf(url), k -> new ArrayDeque<>()).add(url);
+        }
+
+        List<String> interleaved = new ArrayList<>(urls.size());
+        while (!byHost.isEmpty()) {
+            Iterator<Deque<String>> it = byHost.values().iterator();
+            while (it.hasNext()) {
+                Deque<String> queue = it.next();
+                interleaved.add(queue.poll());
+                if (queue.isEmpty()) {
+                    it.remove();
+                }
+            }
+        }
+        return interleaved;
+    }
+
+    /**
+     * Lowercased host of the URL, or the raw string if it does not parse
+     */
+    public static String hostOf(String url) {
+        try {
+            String host = URI.create(url).getHost();
+            if (host != null) {
+                return host.toLowerCase(Locale.ROOT);
+            }
+        } catch (IllegalArgumentException ignored) {
+            // Fall through - malformed URLs share one bucket per raw string
+        }
+        return url;
+    }
+
+    public void shutdown() {
+        spacingTimer.shutdownNow();
+    }
+
+    /**
+     * Hand free slots to queued waiters in order, each starting one spacing interval after the last
+     */
+    private void dispatch(HostState state) {
+        while (true) {
+            Waiter waiter;
+            long delay;
+            synchronized (state) {
+                if (state.active >= maxConcurrencyPerHost) {
+                    return;
+                }
+                waiter = state.queue.pollFirst();
+                if (waiter == null) {
+                    return;
+                }
+                if (waiter.permit().isDone()) {
+                    continue; // Cancelled while queued
+                }
+                state.active++;
+                long now = System.nanoTime();
+                long startAt = state.nextStart - now > 0 ? state.nextStart : now;
+                state.nextStart = startAt + minSpacingNanos;
+                delay = startAt - now;
+            }
+            if (delay > 0) {
+                spacingTimer.schedule(() -> grant(state, waiter), delay, TimeUnit.NANOSECONDS);
+            } else {
+                grant(state, waiter);
+            }
+        }
+    }
+
+    private void grant(HostState state, Waiter waiter) {
+        Permit permit = new Permit(state);
+        if (waiter.permit().complete(permit)) {
+            state.waitTimer.record(System.nanoTime() - waiter.queuedAt(), TimeUnit.NANOSECONDS);
+        } else {
+            permit.close(); // Cancelled while sitting out the spacing - pass the slot on
+        }
+    }
+
+    private void release(HostState state) {
+        synchronized (state) {
+            state.active--;
+        }
+        dispatch(state);
+    }
+
+    private HostState newHostState(String host) {
+        HostState state = new HostState(host);
+        state.depthGauge = Gauge.builder("fetch.host.queue.depth", state.waiting, AtomicInteger::get)
+                .description("Fetches waiting for a host slot")
+                .tag("host", host)
+                .register(meterRegistry);
+        state.waitTimer = Timer.builder("fetch.host.wait")
+                .description("Time spent waiting for a host slot and spacing")
+                .tag("host", host)
+                .register(meterRegistry);
+        return state;
+    }
+
+    /**
+     * Once more hosts than the cap are tracked, drop the ones with no active or queued fetches
+     * whose spacing has elapsed, with their meters. Runs on the timer every
+     * {@code EVICTION_INTERVAL}; each host is re-checked under compute, which {@link #acquire}
+     * also queues under.
+     */
+    private void evictIdleHosts() {
+        if (hosts.size() <= MAX_TRACKED_HOSTS) {
+            return;
+        }
+        long now = System.nanoTime();
+        for (String host : hosts.keySet()) {
+            hosts.computeIfPresent(host, (key, state) -> {
+                if (!state.isIdle(now)) {
+                    return state;
+                }
+                meterRegistry.remove(state.depthGauge);
+                meterRegistry.remove(state.waitTimer);
+                return null;
+            });
+        }
+    }
+
+    private record Waiter(CompletableFuture<Permit> permit, long queuedAt) {
+    }
+
+    private static class HostState {
+        private final String host;
+        private final AtomicInteger waiting = new AtomicInteger();
+        private final Deque<Waiter> queue = new ArrayDeque<>(); // guarded by this
+        private int active; // guarded by this - slots granted, including ones sitting out the spacing
+        private long nextStart = System.nanoTime(); // guarded by this
+        private Gauge depthGauge;
+        private Timer waitTimer;
+
+        private HostState(String host) {
+            this.host = host;
+        }
+
+        private synchronized boolean isIdle(long now) {
+            return active == 0 && queue.isEmpty() && nextStart - now <= 0;
+        }
+    }
+
+    /**
+     * Slot held on a host for the duration of one request
+     */
+    public class Permit implements AutoCloseable {
+        private final HostState state;
+        private final AtomicBoolean released = new AtomicBoolean();
+
+        private Permit(HostState state) {
+            this.state = state;
+        }
+
+        public String getHost() {
+            return state.host;
+        }
+
+        @Override
+        public void close() {
+            if (released.compareAndSet(false, true)) {
+                release(state);
+            }
+        }
+    }
+}
@@ -0,0 +1,76 @@
+package com.ninickname.summarizer.tool.fetch;
+
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.net.http.HttpTimeoutException;
+import java.time.Duration;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+/**
+ * {@link FetchTransport} on {@code java.net.http.HttpClient}. The request's own
+ * timeout only covers the time until the response headers arrive, so the exchange
+ * is also awaited with the timeout to bound the body download.
+ */
+public class JdkFetchTransport implements FetchTransport {
+    private final HttpClient httpClient;
+    private final CappedBodyHandler bodyHandler;
+
+    public JdkFetchTransport(Duration connectTimeout, CappedBodyHandler bodyHandler) {
+        this.httpClient = HttpClient.newBuilder()
+                .connectTimeout(connectTimeout)
+                .followRedirects(HttpClient.Redirect.NORMAL)
+                .build();
+        this.bodyHandler = bodyHandler;
+    }
+
+    @Override
+    public FetchResponse get(URI uri, Map<String, String> headers, Duration timeout)
+            throws IOException, InterruptedException {
+        HttpRequest.Builder request = HttpRequest.newBuilder().uri(uri).timeout(timeout).GET();
+        headers.forEach(request::header);
+
+        CompletableFuture<HttpResponse<CappedBody>> exchange = httpClient.sendAsync(request.build(), bodyHandler);
+        HttpResponse<CappedBody> response;
+        try {
+            response = exchange.get(timeout.toNanos(), TimeUnit.NANOSECONDS);
+        } catch (TimeoutException e) {
+            exchange.cancel(true);
+            throw new FetchTimeoutException(timeout);
+        } catch (InterruptedException e) {
+            exchange.cancel(true);
+            throw e;
+        } catch (ExecutionException e) {
+            Throwable cause = e.getCause();
+            if (cause instanceof HttpTimeoutException) {
+                throw new FetchTimeoutException(timeout);
+            }
+            if (cause instanceof IOException io) {
+                throw io;
+            }
+            throw new IOException(cause.getMessage(), cause);
+        }
+
+        Map<String, String> responseHeaders = new HashMap<>();
+        for (Map.Entry<String, List<String>> header : response.headers().map().entrySet()) {
+            if (!header.getValue().isEmpty()) {
+                responseHeaders.putIfAbsent(header.getKey().toLowerCase(Locale.ROOT), header.getValue().get(0));
+            }
+        }
+        return new FetchResponse(response.statusCode(), response.uri(), responseHeaders, response.body());
+    }
+
+    @Override
+    public void close() {
+        // HttpClient has no close() before Java 21; its threads die with the client
+    }
+}
@@ -0,0 +1,320 @@
+package com.ninickname.summarizer.tool.fetch;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.ByteArrayOutputStream;
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.Writer;
+import java.net.URI;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+
+/**
+ * Recorded fetch responses on disk, for replaying the fetch and extraction path
+ * without network access.
+ *
+ * Two files in the archive directory:
+ * - {@code pages.warc}: append-only WARC-style {@code response} records. Each holds the
+ *   final HTTP response (status line, headers, decoded body) plus extension fields for
+ *   the final URI after redirects, the fetch latency and truncation or rejection
+ * - {@code pages.idx}: one {@code uri<TAB>offset<TAB>length} line per record and URI
+ *   (requested and final), loaded into memory on open; later lines win
+ *
+ * Bodies are stored decoded, so Content-Encoding is dropped and Content-Length
+ * rewritten. Index lines pointing past the end of the data file (a crash between
+ * the two writes) are ignored. Appends are serialized; reads are positional and
+ * may run concurrently.
+ */
+public class PageArchive implements Closeable {
+    private static final Logger logger = LoggerFactory.getLogger(PageArchive.class);
+
+    static final String DATA_FILE = "pages.warc";
+    static final String INDEX_FILE = "pages.idx";
+
+    private static final byte[] CRLF = "\r\n".getBytes(StandardCharsets.US_ASCII);
+    private static final Set<String> DROPPED_HEADERS = Set.of("content-encoding", "content-length", "transfer-encoding");
+
+    private final Path directory;
+    private final FileChannel data;
+    private final Writer index; // guarded by this
+    private final Map<String, Slot> slots; // guarded by itself
+    private final Set<String> targets; // requested URIs in recording order, guarded by slots
+    private long end; // guarded by this
+
+    private record Slot(long offset, int length) {}
+
+    /**
+     * A recorded response and how long the original fetch took
+     */
+    public record ArchivedResponse(FetchResponse response, Duration latency) {}
+
+    private PageArchive(Path directory, FileChannel data, Writer index, Map<String, Slot> slots, Set<String> targets)
+            throws IOException {
+        this.directory = directory;
+        this.data = data;
+        this.index = index;
+        this.slots = slots;
+        this.targets = targets;
+        this.end = data.size();
+    }
+
+    /**
+     * Open the archive in the directory, creating it if needed
+     */
+    public static PageArchive open(Path directory) throws IOException {
+        Files.createDirectories(directory);
+        FileChannel data = FileChannel.open(directory.resolve(DATA_FILE),
+                StandardOpenOption.CREATE, StandardOpenOption.READ, StandardOpenOption.WRITE);
+        Path indexFile = directory.resolve(INDEX_FILE);
+        Map<String, Slot> slots = new HashMap<>();
+        Set<String> targets = new LinkedHashSet<>();
+        readIndex(indexFile, data.size(), slots, targets);
+        Writer index = Files.newBufferedWriter(indexFile, StandardCharsets.UTF_8,
+                StandardOpenOption.CREATE, StandardOpenOption.APPEND);
+        logger.info("Page archive at {}: {} URLs, {} KB", directory, targets.size(), data.size() / 1024);
+        return new PageArchive(directory, data, index, slots, targets);
+    }
+
+    public Path getDirectory() {
+        return directory;
+    }
+
+    /**
+     * Requested URIs with a recorded response, in recording order
+     */
+    public List<String> targets() {
+        synchronized (slots) {
+            return List.copyOf(targets);
+        }
+    }
+
+    /**
+     * Append the response fetched for the requested URI
+     */
+    public void append(URI requested, FetchResponse response, Duration latency) throws IOException {
+        byte[] record = encode(requested, response, latency);
+        String target = requested.toString();
+        String finalUri = response.uri().toString();
+
+        synchronized (this) {
+            long offset = end;
+            ByteBuffer buffer = ByteBuffer.wrap(record);
+            while (buffer.hasRemaining()) {
+                data.write(buffer, offset + buffer.position());
+            }
+            end += record.length;
+
+            Slot slot = new Slot(offset, record.length);
+            writeIndexLine(target, slot);
+            if (!finalUri.equals(target)) {
+                writeIndexLine(finalUri, slot);
+            }
+            index.flush();
+            synchronized (slots) {
+                slots.put(target, slot);
+                slots.put(finalUri, slot);
+                targets.add(target);
+            }
+        }
+    }
+
+    /**
+     * Recorded response for the URI, or null if it was never recorded
+     */
+    public ArchivedResponse get(String uri) throws IOException {
+        Slot slot;
+        synchronized (slots) {
+            slot = slots.get(uri);
+        }
+        if (slot == null) {
+            return null;
+        }
+        ByteBuffer buffer = ByteBuffer.allocate(slot.length());
+        while (buffer.hasRemaining()) {
+            if (data.read(buffer, slot.offset() + buffer.position()) < 0) {
+                throw new IOException("Archive record for " + uri + " is cut short");
+            }
+        }
+        return decode(buffer.array());
+    }
+
+    @Override
+    public void close() throws IOException {
+        synchronized (this) {
+            index.close();
+            data.close();
+        }
+    }
+
+    private void writeIndexLine(String uri, Slot slot) throws IOException {
+        index.write(uri + '\t' + slot.offset() + '\t' + slot.length() + '\n');
+    }
+
+    /**
+     * Load the index; the first line written for a record is its requested URI
+     */
+    private static void readIndex(Path indexFile, long dataSize, Map<String, Slot> slots, Set<String> targets)
+            throws IOException {
+        if (!Files.exists(indexFile)) {
+            return;
+        }
+        Set<Long> seenOffsets = new HashSet<>();
+        List<String> lines = Files.readAllLines(indexFile, StandardCharsets.UTF_8);
+        for (String line : lines) {
+            String[] fields = line.split("\t");
+            if (fields.length != 3) {
+                continue;
+            }
+            try {
+                Slot slot = new Slot(Long.parseLong(fields[1]), Integer.parseInt(fields[2]));
+                if (slot.offset() + slot.length() <= dataSize) {
+                    slots.put(fields[0], slot);
+                    if (seenOffsets.add(slot.offset())) {
+                        targets.add(fields[0]);
+                    }
+                }
+            } catch (NumberFormatException e) {
+                logger.debug("Skipping malformed archive index line: {}", line);
+            }
+        }
+    }
+
+    private static byte[] encode(URI requested, FetchResponse response, Duration latency) throws IOException {
+        CappedBody body = response.body();
+
+        ByteArrayOutputStream block = new ByteArrayOutputStream(body.bytes().length + 512);
+        writeLine(block, "HTTP/1.1 " + response.statusCode());
+        for (Map.Entry<String, String> header : response.headers().entrySet()) {
+            if (!DROPPED_HEADERS.contains(header.getKey())) {
+                writeLine(block, header.getKey() + ": " + header.getValue());
+            }
+        }
+        writeLine(block, "content-length: " + body.bytes().length);
+        block.write(CRLF);
+        block.write(body.bytes());
+
+        ByteArrayOutputStream record = new ByteArrayOutputStream(block.size() + 512);
+        writeLine(record, "WARC/1.1");
+        writeLine(record, "WARC-Type: response");
+        writeLine(record, "WARC-Record-ID: <urn:uuid:" + UUID.randomUUID() + ">");
+        writeLine(record, "WARC-Date: " + Instant.now());
+        writeLine(record, "WARC-Target-URI: " + requested);
+        writeLine(record, "Fetch-Final-URI: " + response.uri());
+        writeLine(record, "Fetch-Latency-Millis: " + latency.toMillis());
+        if (body.truncated()) {
+            writeLine(record, "Fetch-Truncated: true");
+        }
+        if (body.isRejected()) {
+            writeLine(record, "Fetch-Rejected: " + body.rejectReason()
+                    + (body.rejectDetail() != null ? " " + body.rejectDetail() : ""));
+        }
+        writeLine(record, "Content-Type: application/http;msgtype=response");
+        writeLine(record, "Content-Length: " + block.size());
+        record.write(CRLF);
+        block.writeTo(record);
+        record.write(CRLF);
+        record.write(CRLF);
+        return record.toByteArray();
+    }
+
+    private static ArchivedResponse decode(byte[] record) throws IOException {
+        int warcEnd = headerEnd(record, 0);
+        Map<String, String> warc = parseHeaders(record, 0, warcEnd, false);
+        int blockStart = warcEnd + 4;
+        int blockLength = Integer.parseInt(required(warc, "content-length"));
+
+        int httpEnd = headerEnd(record, blockStart);
+        Map<String, String> headers = parseHeaders(record, blockStart, httpEnd, true);
+        String statusLine = new String(record, blockStart, lineEnd(record, blockStart) - blockStart, StandardCharsets.ISO_8859_1);
+        int status = Integer.parseInt(statusLine.split(" ")[1]);
+
+        int bodyStart = httpEnd + 4;
+        byte[] bodyBytes = new byte[blockStart + blockLength - bodyStart];
+        System.arraycopy(record, bodyStart, bodyBytes, 0, bodyBytes.length);
+
+        CappedBody body;
+        String rejected = warc.get("fetch-rejected");
+        if (rejected != null) {
+            int space = rejected.indexOf(' ');
+            body = space < 0
+                    ? CappedBody.rejected(RejectReason.valueOf(rejected), null)
+                    : CappedBody.rejected(RejectReason.valueOf(rejected.substring(0, space)), rejected.substring(space + 1));
+        } else {
+            body = new CappedBody(bodyBytes, Boolean.parseBoolean(warc.get("fetch-truncated")));
+        }
+
+        URI uri = URI.create(required(warc, "fetch-final-uri"));
+        Duration latency = Duration.ofMillis(Long.parseLong(required(warc, "fetch-latency-millis")));
+        return new ArchivedResponse(new FetchResponse(status, uri, headers, body), latency);
+    }
+
+    /**
+     * Headers between {@code start} and {@code end}, skipping the first (version or status) line
+     */
+    private static Map<String, String> parseHeaders(byte[] record, int start, int end, boolean firstValueWins) {
+        Map<String, String> headers = new HashMap<>();
+        int lineStart = lineEnd(record, start) + 2;
+        while (lineStart < end) {
+            int lineEnd = lineEnd(record, lineStart);
+            String line = new String(record, lineStart, lineEnd - lineStart, StandardCharsets.UTF_8);
+            int colon = line.indexOf(':');
+            if (colon > 0) {
+                String name = line.substring(0, colon).trim().toLowerCase(Locale.ROOT);
+                String value = line.substring(colon + 1).trim();
+                if (firstValueWins) {
+                    headers.putIfAbsent(name, value);
+                } else {
+                    headers.put(name, value);
+                }
+            }
+            lineStart = lineEnd + 2;
+        }
+        return headers;
+    }
+
+    private static int headerEnd(byte[] record, int from) throws IOException {
+        for (int i = from; i + 3 < record.length; i++) {
+            if (record[i] == '\r' && record[i + 1] == '\n' && record[i + 2] == '\r' && record[i + 3] == '\n') {
+                return i;
+            }
+        }
+        throw new IOException("Malformed archive record: no end of headers");
+    }
+
+    private static int lineEnd(byte[] record, int from) {
+        int i = from;
+        while (i + 1 < record.length && !(record[i] == '\r' && record[i + 1] == '\n')) {
+            i++;
+        }
+        return i;
+    }
+
+    private static String required(Map<String, String> headers, String name) throws IOException {
+        String value = headers.get(name);
+        if (value == null) {
+            throw new IOException("Malformed archive record: missing " + name);
+        }
+        return value;
+    }
+
+    private static void writeLine(ByteArrayOutputStream out, String line) throws IOException {
+        out.write(line.getBytes(StandardCharsets.UTF_8));
+        out.write(CRLF);
+    }
+}
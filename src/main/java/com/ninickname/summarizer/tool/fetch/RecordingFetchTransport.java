@@ -0,0 +1,57 @@
+package com.ninickname.summarizer.tool.fetch;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.IOException;
+import java.net.URI;
+import java.time.Duration;
+import java.util.Map;
+
+/**
+ * Capture mode: passes fetches through to the real transport and appends every
+ * response to a {@link PageArchive}, with its latency, for later replay.
+ *
+ * 304 Not Modified answers are not recorded - replayed without the cached copy
+ * they validated, they would carry no page. Failed fetches (timeouts, I/O errors)
+ * are not recorded either and replay as archive misses. A failed append is logged
+ * and does not fail the fetch.
+ */
+public class RecordingFetchTransport implements FetchTransport {
+    private static final Logger logger = LoggerFactory.getLogger(RecordingFetchTransport.class);
+
+    private final FetchTransport delegate;
+    private final PageArchive archive;
+
+    public RecordingFetchTransport(FetchTransport delegate, PageArchive archive) {
+        this.delegate = delegate;
+        this.archive = archive;
+    }
+
+    @Override
+    public FetchResponse get(URI uri, Map<String, String> headers, Duration timeout)
+            throws IOException, InterruptedException {
+        long start = System.nanoTime();
+        FetchResponse response = delegate.get(uri, headers, timeout);
+        Duration latency = Duration.ofNanos(System.nanoTime() - start);
+
+        if (response.statusCode() != 304) {
+            try {
+                archive.append(uri, response, latency);
+            } catch (IOException e) {
+                logger.warn("Failed to record {} in page archive: {}", uri, e.getMessage());
+            }
+        }
+        return response;
+    }
+
+    @Override
+    public void close() {
+        delegate.close();
+        try {
+            archive.close();
+        } catch (IOException e) {
+            logger.warn("Failed to close page archive {}: {}", archive.getDirectory(), e.getMessage());
+        }
+    }
+}
@@ -0,0 +1,65 @@
+package com.ninickname.summarizer.tool.fetch;
+
+import java.time.Duration;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Where URLs ended up last time: the target after URL rewrites (such as Reddit's
+ * old.reddit.com) and redirects (http to https, trailing slashes, moved pages).
+ *
+ * Repeat fetches go straight to the remembered target and skip the hops. Entries
+ * expire after a TTL and are dropped when a fetch of the target fails, so a page
+ * that moved again is followed afresh.
+ */
+public class RedirectMemo {
+    private final long ttlNanos;
+    private final Map<String, Target> targets; // guarded by itself
+
+    private record Target(String url, long expiresAt) {}
+
+    public RedirectMemo(Duration ttl, int maxEntries) {
+        this.ttlNanos = ttl.toNanos();
+        this.targets = new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, Target> eldest) {
+                return size() > maxEntries;
+            }
+        };
+    }
+
+    /**
+     * Remembered target of the URL, or null
+     */
+    public String resolve(String url) {
+        if (ttlNanos <= 0) {
+            return null;
+        }
+        synchronized (targets) {
+            Target target = targets.get(url);
+            if (target == null) {
+                return null;
+            }
+            if (System.nanoTime() - target.expiresAt() >= 0) {
+                targets.remove(url);
+                return null;
+            }
+            return target.url();
+        }
+    }
+
+    public void remember(String url, String target) {
+        if (ttlNanos <= 0 || url.equals(target)) {
+            return;
+        }
+        synchronized (targets) {
+            targets.put(url, new Target(target, System.nanoTime() + ttlNanos));
+        }
+    }
+
+    public void forget(String url) {
+        synchronized (targets) {
+            targets.remove(url);
+        }
+    }
+}
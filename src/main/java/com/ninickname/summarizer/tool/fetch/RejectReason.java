@@ -0,0 +1,20 @@
+package com.ninickname.summarizer.tool.fetch;
+
+import java.util.Locale;
+
+/**
+ * Why a response body was refused as soon as its headers arrived
+ */
+public enum RejectReason {
+    /** Content-Type is not HTML (PDF, image, archive, JSON, ...) */
+    NOT_HTML,
+    /** Content-Length above the configured limit */
+    TOO_LARGE;
+
+    /**
+     * Metric tag value
+     */
+    public String tag() {
+        return name().toLowerCase(Locale.ROOT);
+    }
+}
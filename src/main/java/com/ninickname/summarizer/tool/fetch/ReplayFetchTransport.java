@@ -0,0 +1,74 @@
+package com.ninickname.summarizer.tool.fetch;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.IOException;
+import java.net.URI;
+import java.time.Duration;
+import java.util.Map;
+
+/**
+ * {@link FetchTransport} serving responses from a {@link PageArchive} instead of the
+ * network, for deterministic load tests and benchmarks on real-world pages.
+ *
+ * Each response is delayed by its recorded latency times {@code latencyScale}
+ * (0 serves immediately); one that would exceed the request timeout fails with
+ * {@link FetchTimeoutException} after the timeout, as the live fetch would have.
+ * URLs missing from the archive answer 404.
+ *
+ * Metric: {@code fetch.archive.replay} (tagged result: hit, miss).
+ */
+public class ReplayFetchTransport implements FetchTransport {
+    private static final Logger logger = LoggerFactory.getLogger(ReplayFetchTransport.class);
+
+    private final PageArchive archive;
+    private final double latencyScale;
+    private final Counter hits;
+    private final Counter misses;
+
+    public ReplayFetchTransport(PageArchive archive, double latencyScale, MeterRegistry meterRegistry) {
+        if (latencyScale < 0) {
+            throw new IllegalArgumentException("latencyScale must not be negative: " + latencyScale);
+        }
+        this.archive = archive;
+        this.latencyScale = latencyScale;
+        this.hits = Counter.builder("fetch.archive.replay").tag("result", "hit").register(meterRegistry);
+        this.misses = Counter.builder("fetch.archive.replay").tag("result", "miss")
+                .description("Replayed fetches of URLs the archive has no record of")
+                .register(meterRegistry);
+    }
+
+    @Override
+    public FetchResponse get(URI uri, Map<String, String> headers, Duration timeout)
+            throws IOException, InterruptedException {
+        PageArchive.ArchivedResponse archived = archive.get(uri.toString());
+        if (archived == null) {
+            misses.increment();
+            logger.debug("Not in page archive: {}", uri);
+            return new FetchResponse(404, uri, Map.of(), new CappedBody(new byte[0], false));
+        }
+        hits.increment();
+
+        long delayNanos = (long) (archived.latency().toNanos() * latencyScale);
+        if (delayNanos > timeout.toNanos()) {
+            Thread.sleep(timeout.toMillis());
+            throw new FetchTimeoutException(timeout);
+        }
+        if (delayNanos > 0) {
+            Thread.sleep(delayNanos / 1_000_000, (int) (delayNanos % 1_000_000));
+        }
+        return archived.response();
+    }
+
+    @Override
+    public void close() {
+        try {
+            archive.close();
+        } catch (IOException e) {
+            logger.warn("Failed to close page archive {}: {}", archive.getDirectory(), e.getMessage());
+        }
+    }
+}
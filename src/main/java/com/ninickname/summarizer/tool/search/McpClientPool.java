@@ -0,0 +1,276 @@
+package com.ninickname.summarizer.tool.search;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import io.modelcontextprotocol.client.McpSyncClient;
+import io.modelcontextprotocol.spec.McpSchema;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.time.Duration;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.List;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.function.Supplier;
+
+/**
+ * Initialized MCP client sessions shared by concurrent searches, so a search
+ * does not pay a full MCP handshake.
+ *
+ * - At most {@code maxClients} sessions are leased at once; callers beyond that wait
+ *   up to the acquire timeout
+ * - Sessions are created (and initialized) on demand and reused most-recently-used first
+ * - Idle sessions are pinged every keep-alive interval, which keeps them open on the
+ *   server and weeds out dead ones
+ * - A call that fails on a reused session is retried once on it. When the server lost
+ *   the session, the MCP client has re-initialized it by then; a session that fails
+ *   twice is closed. A call abandoned by interrupting the caller returns its session as is
+ *
+ * Metrics: {@code search.mcp.handshakes} (initial and re-initializations),
+ * {@code search.mcp.session.retries}, {@code search.mcp.pool.wait} and
+ * {@code search.mcp.pool.sessions} (tagged state: idle, leased).
+ */
+public class McpClientPool implements AutoCloseable {
+    private static final Logger logger = LoggerFactory.getLogger(McpClientPool.class);
+
+    private final Supplier<McpSyncClient> clientFactory;
+    private final int maxClients;
+    private final Duration acquireTimeout;
+    private final Semaphore leases;
+    private final Deque<Session> idle = new ArrayDeque<>(); // guarded by itself
+    private final ScheduledExecutorService keepAlive;
+
+    private final Counter handshakes;
+    private final Counter retries;
+    private final Timer poolWait;
+
+    /**
+     * A client and the initialization it was last seen with; the client replaces it
+     * when it re-initializes after losing its session
+     */
+    private static class Session {
+        final McpSyncClient client;
+        McpSchema.InitializeResult initialization;
+
+        Session(McpSyncClient client, McpSchema.InitializeResult initialization) {
+            this.client = client;
+            this.initialization = initialization;
+        }
+    }
+
+    /**
+     * @param clientFactory builds an uninitialized client; the pool initializes it
+     */
+    public McpClientPool(Supplier<McpSyncClient> clientFactory, int maxClients, Duration acquireTimeout,
+                         Duration keepAliveInterval, MeterRegistry meterRegistry) {
+        if (maxClients <= 0) {
+            throw new IllegalArgumentException("maxClients must be positive: " + maxClients);
+        }
+        this.clientFactory = clientFactory;
+        this.maxClients = maxClients;
+        this.acquireTimeout = acquireTimeout;
+        this.leases = new Semaphore(maxClients, true);
+
+        this.handshakes = Counter.builder("search.mcp.handshakes")
+                .description("MCP session initializations, including re-initializations after session loss")
+                .register(meterRegistry);
+        this.retries = Counter.builder("search.mcp.session.retries")
+                .description("Calls retried after failing on a reused MCP session")
+                .register(meterRegistry);
+        this.poolWait = Timer.builder("search.mcp.pool.wait")
+                .description("Time searches wait for a free MCP session")
+                .register(meterRegistry);
+        Gauge.builder("search.mcp.pool.sessions", this, McpClientPool::idleCount)
+                .tag("state", "idle")
+                .register(meterRegistry);
+        Gauge.builder("search.mcp.pool.sessions", leases, permits -> maxClients - permits.availablePermits())
+                .tag("state", "leased")
+                .register(meterRegistry);
+
+        this.keepAlive = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "mcp-keep-alive");
+            thread.setDaemon(true);
+            return thread;
+        });
+        long intervalMillis = keepAliveInterval.toMillis();
+        if (intervalMillis > 0) {
+            keepAlive.scheduleWithFixedDelay(this::pingIdle, intervalMillis, intervalMillis, TimeUnit.MILLISECONDS);
+        }
+    }
+
+    /**
+     * Call a tool on a pooled session
+     *
+     * @throws TimeoutException if no session became free within the acquire timeout
+     */
+    public McpSchema.CallToolResult callTool(McpSchema.CallToolRequest request)
+            throws InterruptedException, TimeoutException {
+        long waitStart = System.nanoTime();
+        boolean leased = leases.tryAcquire(acquireTimeout.toMillis(), TimeUnit.MILLISECONDS);
+        poolWait.record(System.nanoTime() - waitStart, TimeUnit.NANOSECONDS);
+        if (!leased) {
+            throw new TimeoutException("No MCP session free within " + acquireTimeout.toMillis() + "ms");
+        }
+
+        try {
+            Session session = pollIdle();
+            boolean reused = session != null;
+            if (!reused) {
+                session = connect();
+            }
+            try {
+                return call(session, request);
+            } catch (RuntimeException e) {
+                if (Thread.currentThread().isInterrupted()) {
+                    // The caller gave up on the request (a cancelled speculative page); the session is fine
+                    offerIdle(session);
+                    throw e;
+                }
+                if (!reused) {
+                    closeQuietly(session);
+                    throw e;
+                }
+                retries.increment();
+                logger.info("MCP call '{}' failed on a reused session ({}), retrying", request.name(), e.getMessage());
+            }
+            try {
+                return call(session, request);
+            } catch (RuntimeException e) {
+                closeQuietly(session);
+                throw e;
+            }
+        } finally {
+            leases.release();
+        }
+    }
+
+    @Override
+    public void close() {
+        keepAlive.shutdownNow();
+        List<Session> sessions;
+        synchronized (idle) {
+            sessions = new ArrayList<>(idle);
+            idle.clear();
+        }
+        sessions.forEach(McpClientPool::closeQuietly);
+    }
+
+    private McpSchema.CallToolResult call(Session session, McpSchema.CallToolRequest request) {
+        McpSchema.CallToolResult result = session.client.callTool(request);
+        checkReinitialized(session);
+        offerIdle(session);
+        return result;
+    }
+
+    private Session connect() {
+        McpSyncClient client = clientFactory.get();
+        McpSchema.InitializeResult initialization;
+        try {
+            initialization = client.initialize();
+        } catch (RuntimeException e) {
+            closeQuietly(client);
+            throw e;
+        }
+        handshakes.increment();
+        logger.debug("Initialized MCP session ({} handshakes so far)", (long) handshakes.count());
+        return new Session(client, initialization);
+    }
+
+    /**
+     * Count a handshake the client made on its own after the server lost the session
+     */
+    private void checkReinitialized(Session session) {
+        McpSchema.InitializeResult current = session.client.getCurrentInitializationResult();
+        if (current != null && current != session.initialization) {
+            session.initialization = current;
+            handshakes.increment();
+            logger.debug("MCP session was re-initialized");
+        }
+    }
+
+    private Session pollIdle() {
+        synchronized (idle) {
+            return idle.pollFirst();
+        }
+    }
+
+    private Session pollOldestIdle() {
+        synchronized (idle) {
+            return idle.pollLast();
+        }
+    }
+
+    private void offerIdle(Session session) {
+        synchronized (idle) {
+            // Sessions created while the keep-alive had one out can exceed the cap
+            if (idle.size() < maxClients) {
+                idle.offerFirst(session);
+                return;
+            }
+        }
+        closeQuietly(session);
+    }
+
+    private int idleCount() {
+        synchronized (idle) {
+            return idle.size();
+        }
+    }
+
+    /**
+     * Ping every idle session, twice if needed (the first failure may just be the
+     * session expiring); the ones that still fail are closed. Only the session
+     * being pinged is out of the pool, so searches meanwhile still find the rest.
+     */
+    private void pingIdle() {
+        int sessions = idleCount();
+        int dropped = 0;
+        for (int i = 0; i < sessions; i++) {
+            // Oldest first: pinged sessions go back to the front, so each is pinged once
+            Session session = pollOldestIdle();
+            if (session == null) {
+                break;
+            }
+            if (ping(session) || ping(session)) {
+                checkReinitialized(session);
+                offerIdle(session);
+            } else {
+                dropped++;
+                closeQuietly(session);
+            }
+        }
+        if (dropped > 0) {
+            logger.info("Closed {} of {} idle MCP sessions that failed their keep-alive ping", dropped, sessions);
+        }
+    }
+
+    private static boolean ping(Session session) {
+        try {
+            session.client.ping();
+            return true;
+        } catch (RuntimeException e) {
+            logger.debug("MCP keep-alive ping failed: {}", e.getMessage());
+            return false;
+        }
+    }
+
+    private static void closeQuietly(Session session) {
+        closeQuietly(session.client);
+    }
+
+    private static void closeQuietly(McpSyncClient client) {
+        try {
+            client.close();
+        } catch (RuntimeException e) {
+            logger.debug("Error closing MCP session: {}", e.getMessage());
+        }
+    }
+}
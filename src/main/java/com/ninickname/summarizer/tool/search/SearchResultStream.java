@@ -0,0 +1,128 @@
+package com.ninickname.summarizer.tool.search;
+
+import com.ninickname.summarizer.model.SearxngResult;
+import com.ninickname.summarizer.util.UrlCanonicalizer;
+
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Search results handed from a running search to the fetch stage as each page is
+ * read, so fetching starts with the first page rather than after the last.
+ *
+ * - The search publishes its unique results in rank order and completes the stream
+ *   when it is done, also when it fails
+ * - At most {@code capacity} results wait to be taken; publishing beyond that blocks
+ *   until the consumer catches up
+ * - The consumer closes the stream once it has enough; later results are dropped
+ *   without blocking, and the search carries on for its own result list
+ */
+public class SearchResultStream {
+    private final int capacity;
+    private final Deque<SearxngResult> buffer = new ArrayDeque<>(); // guarded by this
+    private final Map<String, SearxngResult> published = new HashMap<>(); // by canonical URL, guarded by this
+    private boolean completed; // guarded by this
+    private boolean closed; // guarded by this
+    private Runnable listener = () -> { }; // guarded by this
+
+    public SearchResultStream(int capacity) {
+        if (capacity <= 0) {
+            throw new IllegalArgumentException("capacity must be positive: " + capacity);
+        }
+        this.capacity = capacity;
+    }
+
+    /**
+     * Publish a result, waiting while {@code capacity} results are still untaken
+     *
+     * @return false if the result was dropped: the stream is closed or completed, or
+     *         the publishing thread was interrupted (its interrupt flag is restored)
+     */
+    public boolean publish(SearxngResult result) {
+        Runnable toNotify;
+        synchronized (this) {
+            try {
+                while (buffer.size() >= capacity && !closed) {
+                    wait();
+                }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return false;
+            }
+            if (closed || completed) {
+                return false;
+            }
+            buffer.addLast(result);
+            published.putIfAbsent(UrlCanonicalizer.canonicalize(result.url()), result);
+            toNotify = listener;
+        }
+        toNotify.run();
+        return true;
+    }
+
+    /**
+     * No more results will be published
+     */
+    public void complete() {
+        Runnable toNotify;
+        synchronized (this) {
+            if (completed) {
+                return;
+            }
+            completed = true;
+            toNotify = listener;
+        }
+        toNotify.run();
+    }
+
+    /**
+     * Next result in rank order, or null if none is waiting
+     */
+    public synchronized SearxngResult poll() {
+        SearxngResult result = buffer.pollFirst();
+        if (result != null) {
+            notifyAll();
+        }
+        return result;
+    }
+
+    /**
+     * True once nothing is waiting and nothing more will be published
+     */
+    public synchronized boolean isExhausted() {
+        return closed || (completed && buffer.isEmpty());
+    }
+
+    /**
+     * The published result for the URL (matched in canonical form), or null
+     */
+    public synchronized SearxngResult resultFor(String url) {
+        return published.get(UrlCanonicalizer.canonicalize(url));
+    }
+
+    /**
+     * Run {@code listener} on the publishing thread whenever a result is published or the
+     * stream completes, and right away if either already happened. It must not block.
+     */
+    public void onAvailable(Runnable listener) {
+        boolean pending;
+        synchronized (this) {
+            this.listener = listener;
+            pending = !buffer.isEmpty() || completed;
+        }
+        if (pending) {
+            listener.run();
+        }
+    }
+
+    /**
+     * The consumer is done: drop waiting and future results and release a blocked publisher
+     */
+    public synchronized void close() {
+        closed = true;
+        buffer.clear();
+        notifyAll();
+    }
+}
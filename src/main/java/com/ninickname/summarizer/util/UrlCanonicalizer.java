@@ -0,0 +1,268 @@
+package com.ninickname.summarizer.util;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Locale;
+import java.util.Set;
+
+/**
+ * Canonical form of a URL, for deduplication and cache keys. Never fetch it: the
+ * variants it merges usually, but not always, serve the same page.
+ *
+ * - http and https merged (the key has no scheme), user info and the scheme's
+ *   default port dropped
+ * - Host lowercased; trailing dot, a leading {@code www.} and mobile labels
+ *   ({@code m.}, {@code mobile.}) outside the registrable domain dropped
+ * - Fragment and trailing slashes dropped (an empty path is {@code /})
+ * - Tracking parameters ({@code utm_*}, {@code fbclid}, {@code gclid}, ...) dropped,
+ *   the rest sorted by name (stable, so repeated names keep their order)
+ * - Percent-escapes uppercased; escaped unreserved characters and {@code !'()*} decoded
+ *
+ * Anything that is not an absolute http(s) URL comes back trimmed but otherwise as is.
+ * Runs for every search result and fetch, so it is a single pass without java.net.URI.
+ */
+public final class UrlCanonicalizer {
+
+    private static final Set<String> TRACKING_PARAMETERS = Set.of(
+            "fbclid", "gclid", "gclsrc", "dclid", "gbraid", "wbraid", "msclkid", "yclid", "twclid", "ttclid",
+            "igshid", "mc_cid", "mc_eid", "_ga", "_gl", "_hsenc", "_hsmi", "mkt_tok", "s_cid", "vero_id"
+    );
+
+    private static final int LONGEST_TRACKING_PARAMETER =
+            TRACKING_PARAMETERS.stream().mapToInt(String::length).max().orElse(0);
+
+    private static final Comparator<String> BY_NAME = Comparator.comparing(UrlCanonicalizer::parameterName);
+
+    private UrlCanonicalizer() {
+    }
+
+    public static String canonicalize(String url) {
+        if (url == null) {
+            return null;
+        }
+        String s = url.strip();
+        int schemeEnd = s.indexOf("://");
+        if (!isHttpScheme(s, schemeEnd)) {
+            return s;
+        }
+
+        int authorityStart = schemeEnd + 3;
+        int end = s.indexOf('#', authorityStart);
+        if (end < 0) {
+            end = s.length();
+        }
+        int pathStart = authorityStart;
+        while (pathStart < end && s.charAt(pathStart) != '/' && s.charAt(pathStart) != '?') {
+            pathStart++;
+        }
+        int queryStart = s.indexOf('?', pathStart);
+        if (queryStart < 0 || queryStart > end) {
+            queryStart = end;
+        }
+
+        StringBuilder key = new StringBuilder(end - authorityStart + 1);
+        String defaultPort = schemeEnd == 4 ? "80" : "443";
+        if (!appendAuthority(key, s, authorityStart, pathStart, defaultPort)) {
+            return s;
+        }
+        appendPath(key, s, pathStart, queryStart);
+        if (queryStart + 1 < end) {
+            appendQuery(key, s, queryStart + 1, end);
+        }
+        return key.toString();
+    }
+
+    private static boolean isHttpScheme(String s, int schemeEnd) {
+        return (schemeEnd == 4 && s.regionMatches(true, 0, "http", 0, 4))
+                || (schemeEnd == 5 && s.regionMatches(true, 0, "https", 0, 5));
+    }
+
+    /**
+     * Host and non-default port; false if there is no host
+     */
+    private static boolean appendAuthority(StringBuilder key, String s, int start, int end, String defaultPort) {
+        int at = s.lastIndexOf('@', end - 1);
+        if (at >= start) {
+            start = at + 1;
+        }
+        int hostEnd = end;
+        int portStart = -1;
+        if (start < end && s.charAt(start) == '[') { // IPv6 literal
+            int bracket = s.indexOf(']', start);
+            if (bracket < 0 || bracket >= end) {
+                return false;
+            }
+            hostEnd = bracket + 1;
+            portStart = hostEnd < end && s.charAt(hostEnd) == ':' ? hostEnd + 1 : -1;
+        } else {
+            int colon = s.indexOf(':', start);
+            if (colon >= 0 && colon < end) {
+                hostEnd = colon;
+                portStart = colon + 1;
+            }
+        }
+        while (hostEnd > start && s.charAt(hostEnd - 1) == '.') {
+            hostEnd--;
+        }
+        if (hostEnd == start) {
+            return false;
+        }
+
+        int mark = key.length();
+        for (int i = start; i < hostEnd; i++) {
+            char c = s.charAt(i);
+            key.append(c >= 'A' && c <= 'Z' ? (char) (c + ('a' - 'A')) : c);
+        }
+        dropHostLabels(key, mark);
+
+        if (portStart >= 0 && portStart < end) {
+            String port = s.substring(portStart, end);
+            if (!port.equals(defaultPort)) {
+                key.append(':').append(port);
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Drop a leading "www" and "m"/"mobile" labels, keeping at least the last two labels
+     */
+    private static void dropHostLabels(StringBuilder key, int mark) {
+        if (key.charAt(mark) == '[') {
+            return;
+        }
+        int labelStart = mark;
+        boolean first = true;
+        while (true) {
+            int dot = key.indexOf(".", labelStart);
+            if (dot < 0 || key.indexOf(".", dot + 1) < 0) {
+                return; // Within the last two labels
+            }
+            int labelLength = dot - labelStart;
+            boolean drop = (first && isLabel(key, labelStart, labelLength, "www"))
+                    || isLabel(key, labelStart, labelLength, "m")
+                    || isLabel(key, labelStart, labelLength, "mobile");
+            if (drop) {
+                key.delete(labelStart, dot + 1);
+            } else {
+                labelStart = dot + 1;
+            }
+            first = false;
+        }
+    }
+
+    private static boolean isLabel(StringBuilder key, int start, int length, String label) {
+        if (length != label.length()) {
+            return false;
+        }
+        for (int i = 0; i < length; i++) {
+            if (key.charAt(start + i) != label.charAt(i)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private static void appendPath(StringBuilder key, String s, int start, int end) {
+        int mark = key.length();
+        key.append('/');
+        if (start < end) {
+            appendEscaped(key, s, start + (s.charAt(start) == '/' ? 1 : 0), end);
+        }
+        int length = key.length();
+        while (length > mark + 1 && key.charAt(length - 1) == '/') {
+            length--;
+        }
+        key.setLength(length);
+    }
+
+    private static void appendQuery(StringBuilder key, String s, int start, int end) {
+        List<String> kept = new ArrayList<>();
+        boolean sorted = true;
+        int paramStart = start;
+        while (paramStart <= end) {
+            int paramEnd = s.indexOf('&', paramStart);
+            if (paramEnd < 0 || paramEnd > end) {
+                paramEnd = end;
+            }
+            if (paramEnd > paramStart && !isTracking(s, paramStart, paramEnd)) {
+                String param = s.substring(paramStart, paramEnd);
+                if (sorted && !kept.isEmpty() && BY_NAME.compare(kept.get(kept.size() - 1), param) > 0) {
+                    sorted = false;
+                }
+                kept.add(param);
+            }
+            paramStart = paramEnd + 1;
+        }
+        if (kept.isEmpty()) {
+            return;
+        }
+        if (!sorted) {
+            kept.sort(BY_NAME);
+        }
+        key.append('?');
+        for (int i = 0; i < kept.size(); i++) {
+            if (i > 0) {
+                key.append('&');
+            }
+            String param = kept.get(i);
+            appendEscaped(key, param, 0, param.length());
+        }
+    }
+
+    private static boolean isTracking(String s, int start, int end) {
+        int nameEnd = s.indexOf('=', start);
+        if (nameEnd < 0 || nameEnd > end) {
+            nameEnd = end;
+        }
+        if (s.regionMatches(true, start, "utm_", 0, 4)) {
+            return true;
+        }
+        if (nameEnd - start > LONGEST_TRACKING_PARAMETER) {
+            return false; // Skips the substring for long names
+        }
+        return TRACKING_PARAMETERS.contains(s.substring(start, nameEnd).toLowerCase(Locale.ROOT));
+    }
+
+    private static String parameterName(String param) {
+        int equals = param.indexOf('=');
+        return equals < 0 ? param : param.substring(0, equals);
+    }
+
+    /**
+     * Copy with percent-escapes normalized: safe characters decoded, hex digits uppercased
+     */
+    private static void appendEscaped(StringBuilder key, String s, int start, int end) {
+        for (int i = start; i < end; i++) {
+            char c = s.charAt(i);
+            if (c == '%' && i + 2 < end) {
+                int high = Character.digit(s.charAt(i + 1), 16);
+                int low = Character.digit(s.charAt(i + 2), 16);
+                if (high >= 0 && low >= 0) {
+                    char decoded = (char) (high * 16 + low);
+                    if (isSafeToDecode(decoded)) {
+                        key.append(decoded);
+                    } else {
+                        key.append('%')
+                                .append(Character.toUpperCase(s.charAt(i + 1)))
+                                .append(Character.toUpperCase(s.charAt(i + 2)));
+                    }
+                    i += 2;
+                    continue;
+                }
+            }
+            key.append(c);
+        }
+    }
+
+    /**
+     * Unreserved characters, plus the ones encodeURIComponent leaves as is - pages link
+     * both forms (Wikipedia's parentheses, for one)
+     */
+    private static boolean isSafeToDecode(char c) {
+        return (c >= 'a' && c <= 'z') || (c >= 'A' && c <= 'Z') || (c >= '0' && c <= '9')
+                || c == '-' || c == '.' || c == '_' || c == '~'
+                || c == '!' || c == '\'' || c == '(' || c == ')' || c == '*';
+    }
+}
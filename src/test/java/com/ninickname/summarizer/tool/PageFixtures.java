@@ -0,0 +1,293 @@
+package com.ninickname.summarizer.tool;
+
+import java.util.Random;
+
+/**
+ * Deterministic fixture corpus for extraction tests and benchmarks.
+ *
+ * Each layout mimics the shape of a real page family - chrome (head assets,
+ * menus, sidebars, footers, cookie banners) around the article - at a realistic
+ * size, so selector passes walk the same amount of noise they do in production.
+ */
+public final class PageFixtures {
+
+    public enum Layout {
+        /** Wikipedia article: .mw-parser-output, infobox, navboxes, references, many h2/h3 */
+        WIKIPEDIA("https://en.wikipedia.org/wiki/Fixture"),
+        /** Blog post in an article element with header, meta, sidebar and comments */
+        BLOG("https://blog.example.com/posts/fixture"),
+        /** Page-builder layout: every heading and paragraph wrapped in its own widget divs */
+        NESTED("https://builder.example.com/fixture"),
+        /** No semantic tags: the main content has to be found among content/post divs */
+        DIV_SOUP("https://news.example.com/story/fixture");
+
+        private final String url;
+
+        Layout(String url) {
+            this.url = url;
+        }
+
+        String url() {
+            return url;
+        }
+    }
+
+    private static final String[] WORDS = (
+            "the a of to and in is that for it as was with be by on not he this are or his from at which " +
+            "but have an they you were her she there been one all we their has would when if so what can " +
+            "thread memory latency request cache server client parser document element heading section " +
+            "throughput benchmark virtual concurrency socket buffer stream compression encoding protocol").split(" ");
+
+    private PageFixtures() {
+    }
+
+    static String html(Layout layout) {
+        Random random = new Random(layout.ordinal() * 31L + 7);
+        StringBuilder html = new StringBuilder(256 * 1024);
+        html.append("<!DOCTYPE html><html lang=\"en\"><head><meta charset=\"utf-8\"><title>Fixture ")
+                .append(layout.name()).append("</title>\n");
+        for (int i = 0; i < 25; i++) {
+            html.append("<link rel=\"stylesheet\" href=\"/static/css/bundle-").append(i).append(".css\">\n");
+            html.append("<script src=\"/static/js/chunk-").append(i).append(".js\" defer></script>\n");
+        }
+        html.append("<script>window.__STATE__ = {\"config\": \"").append("x".repeat(4000)).append("\"};</script>\n");
+        html.append("</head><body>\n");
+
+        siteHeader(html, random);
+        switch (layout) {
+            case WIKIPEDIA -> wikipedia(html, random);
+            case BLOG -> blog(html, random);
+            case NESTED -> nested(html, random);
+            case DIV_SOUP -> divSoup(html, random);
+        }
+        siteFooter(html, random);
+
+        html.append("<div class=\"cookie-banner\"><p>").append(sentence(random, 30))
+                .append("</p><button>Accept</button></div>\n");
+        html.append("</body></html>\n");
+        return html.toString();
+    }
+
+    /**
+     * Comparison-style data table: a header row and {@code rows} rows of five cells
+     * with inline links and markup, as found in specs, benchmarks and changelogs
+     */
+    static String table(int rows) {
+        Random random = new Random(rows * 31L + 11);
+        StringBuilder html = new StringBuilder(rows * 400);
+        html.append("<table class=\"wikitable sortable\"><thead><tr>");
+        for (int c = 0; c < 5; c++) {
+            html.append("<th>").append(sentence(random, 2)).append("</th>");
+        }
+        html.append("</tr></thead><tbody>\n");
+        for (int r = 0; r < rows; r++) {
+            html.append("<tr><td><a href=\"/wiki/").append(word(random)).append("\">").append(sentence(random, 2))
+                    .append("</a></td>");
+            for (int c = 1; c < 5; c++) {
+                html.append("<td>");
+                if (c == 2) {
+                    html.append("<b>").append(random.nextInt(10_000)).append("</b> ms");
+                } else {
+                    html.append(sentence(random, 4 + random.nextInt(8)));
+                }
+                html.append("</td>");
+            }
+            html.append("</tr>\n");
+        }
+        html.append("</tbody></table>\n");
+        return html.toString();
+    }
+
+    private static void siteHeader(StringBuilder html, Random random) {
+        html.append("<header class=\"header site-header\"><div class=\"logo\"><a href=\"/\">Site</a></div>\n<nav class=\"nav\"><ul>");
+        for (int i = 0; i < 40; i++) {
+            html.append("<li class=\"menu-item dropdown-item\"><a href=\"/section/").append(i).append("\">")
+                    .append(word(random)).append("</a><ul class=\"sub-menu\">");
+            for (int j = 0; j < 4; j++) {
+                html.append("<li><a href=\"/section/").append(i).append('/').append(j).append("\">")
+                        .append(word(random)).append("</a></li>");
+            }
+            html.append("</ul></li>");
+        }
+        html.append("</ul></nav></header>\n");
+    }
+
+    private static void siteFooter(StringBuilder html, Random random) {
+        html.append("<aside class=\"sidebar\">");
+        for (int i = 0; i < 10; i++) {
+            html.append("<div class=\"widget related\"><h3>").append(sentence(random, 3)).append("</h3><ul>");
+            for (int j = 0; j < 6; j++) {
+                html.append("<li><a href=\"/p/").append(i * 10 + j).append("\">").append(sentence(random, 8)).append("</a></li>");
+            }
+            html.append("</ul></div>");
+        }
+        html.append("</aside>\n<footer class=\"footer\"><div class=\"footer-columns\">");
+        for (int i = 0; i < 4; i++) {
+            html.append("<div class=\"col\"><h4>").append(word(random)).append("</h4><ul>");
+            for (int j = 0; j < 10; j++) {
+                html.append("<li><a href=\"/f/").append(j).append("\">").append(word(random)).append("</a></li>");
+            }
+            html.append("</ul></div>");
+        }
+        html.append("</div></footer>\n");
+    }
+
+    private static void wikipedia(StringBuilder html, Random random) {
+        html.append("<div id=\"content\" class=\"mw-body\"><h1 id=\"firstHeading\">Fixture article</h1>")
+                .append("<div id=\"bodyContent\"><div id=\"mw-content-text\"><div class=\"mw-parser-output\">\n");
+        html.append("<div class=\"hatnote\">For other uses, see Fixture (disambiguation).</div>");
+        html.append("<table class=\"infobox vcard\">");
+        for (int i = 0; i < 20; i++) {
+            html.append("<tr><th>").append(word(random)).append("</th><td>").append(sentence(random, 6)).append("</td></tr>");
+        }
+        html.append("</table>\n");
+        for (int i = 0; i < 3; i++) {
+            paragraph(html, random, 80);
+        }
+        html.append("<div id=\"toc\" class=\"toc\"><ul>");
+        for (int i = 0; i < 12; i++) {
+            html.append("<li><a href=\"#s").append(i).append("\">").append(sentence(random, 3)).append("</a></li>");
+        }
+        html.append("</ul></div>\n");
+        for (int s = 0; s < 12; s++) {
+            html.append("<h2><span class=\"mw-headline\" id=\"s").append(s).append("\">").append(sentence(random, 3))
+                    .append("</span><span class=\"mw-editsection\">[edit]</span></h2>\n");
+            html.append("<div class=\"thumb tright\"><div class=\"thumbinner\"><img src=\"/img/").append(s)
+                    .append(".png\"><div class=\"thumbcaption\">").append(sentence(random, 12)).append("</div></div></div>");
+            for (int p = 0; p < 3; p++) {
+                paragraph(html, random, 90);
+            }
+            for (int sub = 0; sub < 2; sub++) {
+                html.append("<h3>").append(sentence(random, 4)).append("</h3>");
+                paragraph(html, random, 70);
+                list(html, random, "ul", 5);
+            }
+        }
+        html.append("<h2>References</h2><div class=\"reflist\"><ol class=\"references\">");
+        for (int i = 0; i < 80; i++) {
+            html.append("<li class=\"reference\"><cite>").append(sentence(random, 14)).append("</cite></li>");
+        }
+        html.append("</ol></div>\n");
+        for (int i = 0; i < 3; i++) {
+            html.append("<div class=\"navbox\"><table>");
+            for (int r = 0; r < 15; r++) {
+                html.append("<tr><th>").append(word(random)).append("</th><td>").append(sentence(random, 20)).append("</td></tr>");
+            }
+            html.append("</table></div>");
+        }
+        html.append("<div class=\"catlinks\">Categories: ").append(sentence(random, 10)).append("</div>");
+        html.append("</div></div></div></div>\n");
+    }
+
+    private static void blog(StringBuilder html, Random random) {
+        html.append("<div class=\"breadcrumb\"><a href=\"/\">Home</a> / <a href=\"/blog\">Blog</a></div>\n");
+        html.append("<main><article class=\"post\"><header class=\"article-header\"><h1>").append(sentence(random, 8))
+                .append("</h1><div class=\"article-meta\"><span class=\"author-info\">By ").append(word(random))
+                .append("</span> · <time>2024-01-01</time></div></header>\n");
+        html.append("<div class=\"entry-content\">");
+        for (int i = 0; i < 3; i++) {
+            paragraph(html, random, 60);
+        }
+        for (int s = 0; s < 8; s++) {
+            html.append("<h2>").append(sentence(random, 5)).append("</h2>");
+            for (int p = 0; p < 3; p++) {
+                paragraph(html, random, 70);
+            }
+            if (s % 2 == 0) {
+                html.append("<pre><code>").append(sentence(random, 40)).append("</code></pre>");
+            }
+            if (s % 3 == 0) {
+                html.append("<h3>").append(sentence(random, 4)).append("</h3>");
+                list(html, random, "ol", 6);
+            }
+            html.append("<div class=\"ad ads\"><script>loadAd()</script><p>").append(sentence(random, 10)).append("</p></div>");
+        }
+        html.append("</div><div class=\"social-share share\"><a>Share</a><a>Tweet</a></div>")
+                .append("<div class=\"article-tags tag-container\"><a>tag</a><a>tag</a></div></article>\n");
+        html.append("<section class=\"comments\"><h2>Comments</h2>");
+        for (int c = 0; c < 30; c++) {
+            html.append("<div class=\"comment\"><div class=\"comment-author\">").append(word(random))
+                    .append("</div><p>").append(sentence(random, 40)).append("</p></div>");
+        }
+        html.append("</section></main>\n");
+    }
+
+    private static void nested(StringBuilder html, Random random) {
+        html.append("<div class=\"page-builder\" data-id=\"root\">");
+        for (int s = 0; s < 10; s++) {
+            html.append("<section class=\"builder-section\"><div class=\"builder-container\"><div class=\"builder-column\">")
+                    .append("<div class=\"builder-widget heading-widget\"><div class=\"widget-container\"><h2>")
+                    .append(sentence(random, 4)).append("</h2></div></div></div></div></section>\n");
+            for (int p = 0; p < 4; p++) {
+                html.append("<section class=\"builder-section\"><div class=\"builder-container\"><div class=\"builder-column\">")
+                        .append("<div class=\"builder-widget text-widget\"><div class=\"widget-container\">");
+                paragraph(html, random, 60);
+                html.append("</div></div></div></div></section>\n");
+            }
+        }
+        html.append("</div>\n");
+    }
+
+    private static void divSoup(StringBuilder html, Random random) {
+        html.append("<div class=\"wrapper\"><div class=\"top-stories\">");
+        for (int i = 0; i < 20; i++) {
+            html.append("<div class=\"post-teaser\"><a href=\"/s/").append(i).append("\">").append(sentence(random, 10))
+                    .append("</a><span>").append(sentence(random, 15)).append("</span></div>");
+        }
+        html.append("</div><div class=\"story-content\"><h1>").append(sentence(random, 9)).append("</h1>");
+        for (int p = 0; p < 25; p++) {
+            paragraph(html, random, 60);
+            if (p % 6 == 5) {
+                html.append("<h3>").append(sentence(random, 5)).append("</h3>");
+            }
+        }
+        html.append("</div><div class=\"more-content\">");
+        for (int i = 0; i < 15; i++) {
+            html.append("<div class=\"article-card\"><p>").append(sentence(random, 20)).append("</p></div>");
+        }
+        html.append("</div></div>\n");
+    }
+
+    private static void paragraph(StringBuilder html, Random random, int words) {
+        html.append("<p>");
+        for (int i = 0; i < words; i++) {
+            if (i > 0) {
+                html.append(' ');
+            }
+            int style = random.nextInt(40);
+            if (style == 0) {
+                html.append("<a href=\"/wiki/").append(word(random)).append("\">").append(word(random)).append("</a>");
+            } else if (style == 1) {
+                html.append("<b>").append(word(random)).append("</b>");
+            } else if (style == 2) {
+                html.append("<code>").append(word(random)).append("()</code>");
+            } else {
+                html.append(word(random));
+            }
+        }
+        html.append(".</p>\n");
+    }
+
+    private static void list(StringBuilder html, Random random, String tag, int items) {
+        html.append('<').append(tag).append('>');
+        for (int i = 0; i < items; i++) {
+            html.append("<li>").append(sentence(random, 12)).append("</li>");
+        }
+        html.append("</").append(tag).append(">\n");
+    }
+
+    private static String sentence(Random random, int words) {
+        StringBuilder sentence = new StringBuilder();
+        for (int i = 0; i < words; i++) {
+            if (i > 0) {
+                sentence.append(' ');
+            }
+            sentence.append(word(random));
+        }
+        return sentence.toString();
+    }
+
+    private static String word(Random random) {
+        return WORDS[random.nextInt(WORDS.length)];
+    }
+}
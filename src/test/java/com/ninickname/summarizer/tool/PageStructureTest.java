@@ -0,0 +1,165 @@
+package com.ninickname.summarizer.tool;
+
+import org.jsoup.Jsoup;
+import org.jsoup.nodes.Document;
+import org.jsoup.nodes.Element;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.Arguments;
+import org.junit.jupiter.params.provider.EnumSource;
+import org.junit.jupiter.params.provider.MethodSource;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.stream.Stream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * {@link PageStructure} must pick the same main heading, main element and headings,
+ * and remove the same elements, as the selector-based lookup it replaced
+ * ({@link SelectorPageStructure}).
+ */
+class PageStructureTest {
+
+    @ParameterizedTest
+    @EnumSource(PageFixtures.Layout.class)
+    void matchesSelectorsOnFixtures(PageFixtures.Layout layout) {
+        assertSameStructure(PageFixtures.html(layout), layout.url());
+    }
+
+    @ParameterizedTest
+    @MethodSource("pages")
+    void matchesSelectorsOnPages(String resource, String url) throws IOException {
+        assertSameStructure(read(resource), url);
+    }
+
+    static Stream<Arguments> pages() {
+        return Stream.of(
+                Arguments.of("wikipedia-article.html", "https://en.wikipedia.org/wiki/Jsoup"),
+                Arguments.of("wordpress-post.html", "https://blog.example.org/2023/11/g1-latency/"),
+                Arguments.of("docs-page.html", "https://developer.mozilla.org/en-US/docs/Web/JavaScript/Reference/Global_Objects/Array/map"),
+                Arguments.of("news-story.html", "https://www.example.com/local/transit/council-approves-plan"));
+    }
+
+    /**
+     * Random nesting of the tags, classes, ids and roles the predicates look at, in mixed case
+     */
+    @Test
+    void matchesSelectorsOnRandomPages() {
+        Random random = new Random(12);
+        for (int i = 0; i < 2000; i++) {
+            StringBuilder html = new StringBuilder("<html><head><title>Page ").append(i).append("</title></head><body>");
+            randomElements(html, random, 0);
+            html.append("</body></html>");
+            String url = random.nextBoolean() ? "https://en.wikipedia.org/wiki/Page_" + i : "https://example.com/page/" + i;
+            assertSameStructure(html.toString(), url);
+        }
+    }
+
+    @Test
+    void headingInsideNoiseIsStillTheMainHeading() {
+        Document doc = Jsoup.parse("<body><nav><h1>Site</h1></nav><article><h1>Post</h1><h2>A</h2><p>text</p></article></body>",
+                "https://example.com/");
+        PageStructure structure = PageStructure.scan(doc);
+
+        assertThat(structure.removeMainHeading()).isEqualTo("Site");
+        assertThat(structure.findMainContent().normalName()).isEqualTo("article");
+    }
+
+    private static void assertSameStructure(String html, String url) {
+        Document expectedDoc = Jsoup.parse(html, url);
+        String expectedHeading = SelectorPageStructure.removeMainHeading(expectedDoc);
+        Element expectedMain = SelectorPageStructure.findMainContent(expectedDoc);
+        List<Element> expectedH2 = expectedMain.select("h2");
+        List<Element> expectedH3 = expectedMain.select("h3");
+        if (expectedH2.isEmpty() && expectedH3.isEmpty() && expectedDoc.body() != null) {
+            expectedH2 = expectedDoc.body().select("h2");
+            expectedH3 = expectedDoc.body().select("h3");
+        }
+
+        Document doc = Jsoup.parse(html, url);
+        PageStructure structure = PageStructure.scan(doc);
+        String heading = structure.removeMainHeading();
+        Element main = structure.findMainContent();
+        List<Element> h2 = structure.h2Within(main);
+        List<Element> h3 = structure.h3Within(main);
+        if (h2.isEmpty() && h3.isEmpty() && doc.body() != null) {
+            h2 = structure.h2Within(doc.body());
+            h3 = structure.h3Within(doc.body());
+        }
+
+        assertThat(heading).as("main heading of %s", url).isEqualTo(expectedHeading);
+        assertThat(pathOf(main)).as("main element of %s", url).isEqualTo(pathOf(expectedMain));
+        assertThat(paths(h2)).as("h2 of %s", url).isEqualTo(paths(expectedH2));
+        assertThat(paths(h3)).as("h3 of %s", url).isEqualTo(paths(expectedH3));
+        assertThat(doc.outerHtml()).as("document after removals, %s", url).isEqualTo(expectedDoc.outerHtml());
+    }
+
+    /**
+     * Sibling indexes from the document root, comparable across the two parses
+     */
+    private static List<Integer> pathOf(Element element) {
+        List<Integer> path = new ArrayList<>();
+        for (Element current = element; current.parent() != null; current = current.parent()) {
+            path.add(0, current.elementSiblingIndex());
+        }
+        return path;
+    }
+
+    private static List<List<Integer>> paths(List<Element> elements) {
+        return elements.stream().map(PageStructureTest::pathOf).toList();
+    }
+
+    private static final String[] TAGS = {
+            "div", "div", "div", "section", "article", "main", "aside", "nav", "header", "footer",
+            "span", "p", "h1", "h2", "h3", "ul", "li", "script", "style"};
+    private static final String[] CLASSES = {
+            "header", "Header", "article-header", "footer", "nav", "menu", "sidebar", "ad", "ads", "share",
+            "related", "popup", "breadcrumb", "cookie-notice", "navbox", "infobox", "toc", "reference",
+            "mw-editsection", "noprint", "hatnote", "mw-parser-output", "mw-empty-elt", "box", "thumb",
+            "tright", "article-meta", "author-info", "tag-container", "improve", "article-tags",
+            "post-content", "Entry-Content", "article-body", "article-wrapper", "text", "TEXT",
+            "main-content", "Post-list", "articles", "wrapper", "row", "col", "adjacent", "navigation-x"};
+    private static final String[] IDS = {"toc", "TOC", "mw-navigation", "mw-indicator-pp-default", "content", "main"};
+    private static final String[] ROLES = {"main", " Main ", "navigation", "mainly"};
+
+    private static void randomElements(StringBuilder html, Random random, int depth) {
+        int children = depth > 5 ? 0 : random.nextInt(depth == 0 ? 6 : 4);
+        for (int i = 0; i < children; i++) {
+            String tag = TAGS[random.nextInt(TAGS.length)];
+            html.append('<').append(tag);
+            int classCount = random.nextInt(4) == 0 ? random.nextInt(3) + 1 : 0;
+            if (classCount > 0) {
+                html.append(" class=\"");
+                for (int c = 0; c < classCount; c++) {
+                    html.append(c > 0 ? " " : "").append(CLASSES[random.nextInt(CLASSES.length)]);
+                }
+                html.append('"');
+            }
+            if (random.nextInt(10) == 0) {
+                html.append(" id=\"").append(IDS[random.nextInt(IDS.length)]).append('"');
+            }
+            if (random.nextInt(12) == 0) {
+                html.append(" role=\"").append(ROLES[random.nextInt(ROLES.length)]).append('"');
+            }
+            html.append('>');
+            html.append("word").append(random.nextInt(1000)).append(' ').append("text ".repeat(random.nextInt(20)));
+            if (!tag.equals("script") && !tag.equals("style")) {
+                randomElements(html, random, depth + 1);
+            }
+            html.append("</").append(tag).append('>');
+        }
+    }
+
+    private static String read(String resource) throws IOException {
+        try (InputStream in = PageStructureTest.class.getResourceAsStream("/pages/" + resource)) {
+            assertThat(in).as(resource).isNotNull();
+            return new String(in.readAllBytes(), StandardCharsets.UTF_8);
+        }
+    }
+}
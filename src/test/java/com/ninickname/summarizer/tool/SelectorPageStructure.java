@@ -0,0 +1,78 @@
+package com.ninickname.summarizer.tool;
+
+import org.jsoup.nodes.Document;
+import org.jsoup.nodes.Element;
+import org.jsoup.select.Elements;
+
+/**
+ * Main heading, main content and heading lookup as extraction did it before
+ * {@link PageStructure}: one {@code select()} per query. Kept as the reference for
+ * {@link PageStructureTest} and the baseline of {@code PageStructureBenchmark}.
+ */
+final class SelectorPageStructure {
+
+    private SelectorPageStructure() {
+    }
+
+    static String removeMainHeading(Document doc) {
+        Element h1 = doc.selectFirst("h1");
+        if (h1 != null) {
+            String heading = h1.text();
+            h1.remove();
+            return heading;
+        }
+        return null;
+    }
+
+    static Element findMainContent(Document doc) {
+        doc.select("script, style, nav, footer, aside, " +
+                ".header:not(.article-header), .footer, .navigation, .nav, .menu, " +
+                ".sidebar, .advertisement, .ad, .ads, " +
+                ".social-share, .share, " +
+                ".cookie-banner, .cookie-notice, " +
+                ".popup, .modal, .overlay, " +
+                ".breadcrumb, .related, .recommended, " +
+                ".dropdown-title, .dropdown-item").remove();
+
+        doc.select(".navbox, .vertical-navbox, .sistersitebox, " +
+                ".metadata, .ambox, .mbox-small, " +
+                ".infobox, .toc, #toc, " +
+                ".reflist, .reference, .mw-editsection, " +
+                ".noprint, .catlinks, .printfooter, " +
+                "#mw-navigation, #mw-indicator-pp-default, " +
+                ".hatnote, .dablink").remove();
+
+        Element mainElement = null;
+        if (doc.location().contains("wikipedia.org")) {
+            mainElement = doc.selectFirst(".mw-parser-output");
+            if (mainElement != null) {
+                mainElement.select(".mw-empty-elt, .bandeau-portail, .box, " +
+                        ".messagebox, .thumb, .tright, .thumbinner").remove();
+            }
+        }
+        if (mainElement == null) {
+            mainElement = doc.select("article, main, [role=main]").first();
+        }
+        if (mainElement == null) {
+            mainElement = doc.select(".post-content, .entry-content, .article-content, .article-body, .article-wrapper").first();
+        }
+        if (mainElement == null) {
+            Elements candidates = doc.select("div.text, div[class*='content'], div[class*='post'], div[class*='article']");
+            int maxLength = 0;
+            for (Element candidate : candidates) {
+                int textLength = candidate.text().length();
+                if (textLength > maxLength) {
+                    maxLength = textLength;
+                    mainElement = candidate;
+                }
+            }
+        }
+        if (mainElement == null) {
+            mainElement = doc.body();
+        }
+
+        mainElement.select(".article-meta, .author-info, .tag-container, " +
+                ".improve, .article-tags, header").remove();
+        return mainElement;
+    }
+}
@@ -0,0 +1,108 @@
+package com.ninickname.summarizer.util;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.CsvSource;
+import org.junit.jupiter.params.provider.MethodSource;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * {@link UrlCanonicalizer} on the equivalence groups in {@code url-corpus.txt}
+ * (the corpus {@code UrlCanonicalizerBenchmark} times) and on edge cases.
+ */
+class UrlCanonicalizerTest {
+
+    @ParameterizedTest
+    @MethodSource("corpus")
+    void urlsInAGroupShareOneCanonicalForm(List<String> group) {
+        String key = UrlCanonicalizer.canonicalize(group.get(0));
+        for (String url : group) {
+            assertThat(UrlCanonicalizer.canonicalize(url)).as(url).isEqualTo(key);
+        }
+    }
+
+    @Test
+    void groupsHaveDistinctCanonicalForms() throws IOException {
+        Map<String, String> groupByKey = new HashMap<>();
+        for (List<String> group : corpus()) {
+            String key = UrlCanonicalizer.canonicalize(group.get(0));
+            assertThat(groupByKey.putIfAbsent(key, group.get(0))).as(group.get(0) + " -> " + key).isNull();
+        }
+    }
+
+    @ParameterizedTest
+    @CsvSource({
+            // Only the scheme's own default port is dropped
+            "http://example.com:80/guide, example.com/guide",
+            "https://example.com:443/guide, example.com/guide",
+            "http://example.com:443/guide, example.com:443/guide",
+            "https://example.com:80/guide, example.com:80/guide",
+            "https://example.com:/guide, example.com/guide",
+            // IPv6 literals: lowercased, never stripped of labels, port kept apart from the address
+            "https://[2001:DB8::1]/status, [2001:db8::1]/status",
+            "https://[2001:db8::1]:443/status, [2001:db8::1]/status",
+            "https://[2001:db8::1]:8443/status, [2001:db8::1]:8443/status",
+            "http://[::1]/, [::1]/",
+            "https://[2001:db8::1/status, https://[2001:db8::1/status",
+            // Escapes cut short at the end are copied as is
+            "https://example.com/discount/50%, example.com/discount/50%",
+            "https://example.com/a%4, example.com/a%4",
+            "https://example.com/a%4#top, example.com/a%4",
+            "https://example.com/search?q=100%, example.com/search?q=100%",
+            "https://example.com/a%2f, example.com/a%2F",
+            "https://example.com/a%7e, example.com/a~",
+    })
+    void edgeCases(String url, String expected) {
+        assertThat(UrlCanonicalizer.canonicalize(url)).isEqualTo(expected);
+    }
+
+    @Test
+    void leavesOtherUrlsAsIs() {
+        assertThat(UrlCanonicalizer.canonicalize(null)).isNull();
+        assertThat(UrlCanonicalizer.canonicalize(" mailto:someone@example.com ")).isEqualTo("mailto:someone@example.com");
+        assertThat(UrlCanonicalizer.canonicalize("/relative/path")).isEqualTo("/relative/path");
+        assertThat(UrlCanonicalizer.canonicalize("https://")).isEqualTo("https://");
+    }
+
+    /**
+     * Groups of URLs separated by blank lines; lines starting with # are comments
+     */
+    static List<List<String>> corpus() throws IOException {
+        String text;
+        try (InputStream in = UrlCanonicalizerTest.class.getResourceAsStream("/url-corpus.txt")) {
+            if (in == null) {
+                throw new IOException("url-corpus.txt not on the classpath");
+            }
+            text = new String(in.readAllBytes(), StandardCharsets.UTF_8);
+        }
+        List<List<String>> groups = new ArrayList<>();
+        List<String> group = new ArrayList<>();
+        for (String line : text.split("\n")) {
+            line = line.strip();
+            if (line.startsWith("#")) {
+                continue;
+            }
+            if (line.isEmpty()) {
+                if (!group.isEmpty()) {
+                    groups.add(group);
+                    group = new ArrayList<>();
+                }
+                continue;
+            }
+            group.add(line);
+        }
+        if (!group.isEmpty()) {
+            groups.add(group);
+        }
+        return groups;
+    }
+}